@@ -0,0 +1,77 @@
+package com.tetz.kb6_back.benchmark;
+
+import com.tetz.kb6_back.Kb6BackApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+// 벤치마크용 실행 환경: 임베디드 Redis + H2(MySQL 모드) 위에서 애플리케이션 컨텍스트를 띄움
+// JMH 는 fork 마다 새 JVM 을 쓰므로 trial 단위로 start/stop
+public class BenchmarkEnvironment {
+
+    private final RedisServer redisServer;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkEnvironment(RedisServer redisServer, ConfigurableApplicationContext context) {
+        this.redisServer = redisServer;
+        this.context = context;
+    }
+
+    public static BenchmarkEnvironment start(boolean nearCacheEnabled) {
+        int redisPort = freePort();
+        RedisServer redisServer;
+        try {
+            redisServer = new RedisServer(redisPort);
+            redisServer.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // 커맨드라인 인자는 application.properties 보다 우선순위가 높음
+        String[] args = {
+                "--spring.redis.host=localhost",
+                "--spring.redis.port=" + redisPort,
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--near-cache.enabled=" + nearCacheEnabled,
+                "--logging.file.name=",
+                "--logging.level.root=WARN",
+        };
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Kb6BackApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+
+        return new BenchmarkEnvironment(redisServer, context);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public void stop() {
+        context.close();
+        try {
+            redisServer.stop();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tetz.kb6_back.benchmark;
+
+import com.tetz.kb6_back.config.UserDtoRedisSerializer;
+import com.tetz.kb6_back.dto.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.UUID;
+
+// RedisTemplate 값 직렬화기별 UserDto 직렬화/역직렬화 비용 (Redis 없이 CPU 비용만 측정)
+@State(Scope.Benchmark)
+public class RedisSerializerBenchmark {
+
+    @Param({"genericJackson", "typedJackson", "jdk", "binary"})
+    private String serializerType;
+
+    private RedisSerializer<Object> serializer;
+    private UserDto user;
+    private byte[] serialized;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        serializer = switch (serializerType) {
+            // RedisConfig 기본값 (@class 타입 정보 포함)
+            case "genericJackson" -> new GenericJackson2JsonRedisSerializer();
+            case "typedJackson" -> (RedisSerializer<Object>) (RedisSerializer<?>) new Jackson2JsonRedisSerializer<>(UserDto.class);
+            case "jdk" -> new JdkSerializationRedisSerializer();
+            // redis.serializer=binary
+            case "binary" -> new UserDtoRedisSerializer(new GenericJackson2JsonRedisSerializer());
+            default -> throw new IllegalArgumentException("Unknown serializer: " + serializerType);
+        };
+
+        user = new UserDto(UUID.randomUUID().toString(), "User 1", 30);
+        serialized = serializer.serialize(user);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(user);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+}
@@ -0,0 +1,61 @@
+package com.tetz.kb6_back.benchmark;
+
+import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.service.RedisService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// RedisService 단건 get/set (nearCache=true 이면 L1 히트 경로 측정)
+@State(Scope.Benchmark)
+public class RedisServiceBenchmark {
+
+    private static final int USER_COUNT = 10_000;
+
+    @Param({"false", "true"})
+    private boolean nearCache;
+
+    private BenchmarkEnvironment environment;
+    private RedisService redisService;
+    private List<UserDto> users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = BenchmarkEnvironment.start(nearCache);
+        redisService = environment.getBean(RedisService.class);
+
+        users = new ArrayList<>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(new UserDto(UUID.randomUUID().toString(), "User " + i, 20 + i % 40));
+        }
+        redisService.saveUsers(users);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.stop();
+    }
+
+    @Benchmark
+    public UserDto getUser() {
+        return redisService.getUser(randomUser().getId());
+    }
+
+    @Benchmark
+    public void saveUser() {
+        redisService.saveUser(randomUser());
+    }
+
+    private UserDto randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(USER_COUNT));
+    }
+}
@@ -0,0 +1,37 @@
+package com.tetz.kb6_back.benchmark;
+
+import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.entity.User;
+import com.tetz.kb6_back.service.UserMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+
+// UserSQLService 가 사용하는 DTO <-> Entity 변환 비용 (스프링 컨텍스트 없이 UserMapper 만 측정)
+@State(Scope.Benchmark)
+public class UserConversionBenchmark {
+
+    private UserMapper userMapper;
+    private UserDto userDto;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapper();
+        userDto = new UserDto(UUID.randomUUID().toString(), "User 1", 30);
+        user = userMapper.toEntity(userDto);
+    }
+
+    @Benchmark
+    public User toEntity() {
+        return userMapper.toEntity(userDto);
+    }
+
+    @Benchmark
+    public UserDto toDto() {
+        return userMapper.toDto(user);
+    }
+}
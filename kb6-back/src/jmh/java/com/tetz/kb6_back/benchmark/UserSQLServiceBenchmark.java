@@ -0,0 +1,58 @@
+package com.tetz.kb6_back.benchmark;
+
+import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.service.UserSQLService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// UserSQLService 단건 get/save (H2 MySQL 모드 기준이므로 네트워크 비용은 빠진 JPA 경로 비용)
+@State(Scope.Benchmark)
+public class UserSQLServiceBenchmark {
+
+    private static final int USER_COUNT = 10_000;
+
+    private BenchmarkEnvironment environment;
+    private UserSQLService userSQLService;
+    private List<UserDto> users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = BenchmarkEnvironment.start(false);
+        userSQLService = environment.getBean(UserSQLService.class);
+
+        users = new ArrayList<>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(new UserDto(UUID.randomUUID().toString(), "User " + i, 20 + i % 40));
+        }
+        userSQLService.saveUsers(users);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.stop();
+    }
+
+    @Benchmark
+    public UserDto getUser() {
+        return userSQLService.getUser(randomUser().getId());
+    }
+
+    // 기존 id 저장 = SELECT + UPDATE (merge 경로)
+    @Benchmark
+    public void saveUser() {
+        userSQLService.saveUser(randomUser());
+    }
+
+    private UserDto randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(USER_COUNT));
+    }
+}
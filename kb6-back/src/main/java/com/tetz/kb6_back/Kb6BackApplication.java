@@ -2,8 +2,10 @@ package com.tetz.kb6_back;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class Kb6BackApplication {
 
 	public static void main(String[] args) {
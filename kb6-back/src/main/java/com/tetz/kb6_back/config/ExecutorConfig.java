@@ -0,0 +1,49 @@
+package com.tetz.kb6_back.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+    // 기본값은 Tomcat 요청 처리와 같은 설정(spring.threads.virtual.enabled)을 따름
+    @Value("${lock-test.virtual-threads:${spring.threads.virtual.enabled:false}}")
+    private boolean virtualThreads;
+
+    @Value("${lock-test.pool-size:200}")
+    private int poolSize;
+
+    @Value("${lock-test.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // 동시성 테스트용 공용 실행기 (요청마다 스레드 풀을 새로 만들지 않음)
+    // - virtual: 작업마다 가상 스레드, 수천 개의 동시 요청도 스레드 생성 비용 없이 실행
+    // - platform: 크기와 대기열이 제한된 스레드 풀
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService benchmarkExecutor() {
+        if (virtualThreads) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread thread = new Thread(r, "benchmark-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
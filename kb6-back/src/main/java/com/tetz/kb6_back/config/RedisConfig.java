@@ -2,15 +2,24 @@ package com.tetz.kb6_back.config;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.resource.ClientResources;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -21,24 +30,126 @@ public class RedisConfig {
     @Value("${spring.redis.port}")
     private int port;
 
+    // 값 직렬화 방식: json(기본, @class 포함 JSON) | binary(UserDto 전용 바이너리, 기존 JSON 값도 읽음)
+    @Value("${redis.serializer:json}")
+    private String serializerType;
+
+    // 자동 구성된 ClientResources 를 써야 Lettuce 명령 지연 시간 메트릭(lettuce.command.*)이 수집됨
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
+    public LettuceConnectionFactory redisConnectionFactory(ClientResources clientResources) {
         RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration(host, port);
-        return new LettuceConnectionFactory(redisConfig);
+        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                .clientResources(clientResources)
+                .build();
+        return new LettuceConnectionFactory(redisConfig, clientConfig);
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate() {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory redisConnectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
-        template.setConnectionFactory(redisConnectionFactory());
+        template.setConnectionFactory(redisConnectionFactory);
 
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
 
-        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
-        template.setValueSerializer(jsonSerializer);
-        template.setHashValueSerializer(jsonSerializer);
+        RedisSerializer<Object> valueSerializer = valueSerializer();
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
 
         return template;
     }
+
+    // LettuceConnectionFactory 는 ReactiveRedisConnectionFactory 이기도 하므로 같은 커넥션을 리액티브 API 로 공유
+    // 이름을 reactiveRedisTemplate 으로 두어 자동 구성(Object 키/JDK 직렬화) 빈을 대체
+    @Bean
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(ReactiveRedisConnectionFactory redisConnectionFactory) {
+        RedisSerializer<Object> valueSerializer = valueSerializer();
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(valueSerializer)
+                .hashKey(new StringRedisSerializer())
+                .hashValue(valueSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(redisConnectionFactory, context);
+    }
+
+    private RedisSerializer<Object> valueSerializer() {
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+        return switch (serializerType) {
+            case "json" -> jsonSerializer;
+            case "binary" -> new UserDtoRedisSerializer(jsonSerializer);
+            default -> throw new IllegalArgumentException("Unknown redis.serializer: " + serializerType);
+        };
+    }
+
+    // Pub/Sub 구독용 리스너 컨테이너 (near-cache 무효화 등)
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+
+    // 재고 확인 + 차감 Lua 스크립트 (SHA 캐싱 후 EVALSHA 로 실행됨)
+    @Bean
+    public DefaultRedisScript<Long> decreaseStockScript() {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/decrease_stock.lua"));
+        script.setResultType(Long.class);
+        return script;
+    }
+
+    // 분산 락 해제 (소유자 확인 + DEL + 해제 알림 PUBLISH)
+    @Bean
+    public DefaultRedisScript<Long> unlockScript() {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/unlock.lua"));
+        script.setResultType(Long.class);
+        return script;
+    }
+
+    // 분산 락 임대 시간 연장 (소유자 확인 + PEXPIRE)
+    @Bean
+    public DefaultRedisScript<Long> renewLockScript() {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/renew_lock.lua"));
+        script.setResultType(Long.class);
+        return script;
+    }
+
+    // HASH 저장 방식에서 사용자 저장 + 필드 만료 시간 설정
+    @Bean
+    public DefaultRedisScript<Long> saveUserHashScript() {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/save_user_hash.lua"));
+        script.setResultType(Long.class);
+        return script;
+    }
+
+    // 재고 예약: 가용 재고 -> 만료 시간이 있는 예약으로 이동
+    @Bean
+    public DefaultRedisScript<Long> reserveStockScript() {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/reserve_stock.lua"));
+        script.setResultType(Long.class);
+        return script;
+    }
+
+    // 재고 예약 확정 (예약 삭제 후 확정할 수량 반환, 만료됐으면 가용 재고로 되돌림)
+    @Bean
+    public DefaultRedisScript<Long> confirmReservationScript() {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/confirm_reservation.lua"));
+        script.setResultType(Long.class);
+        return script;
+    }
+
+    // 재고 예약 해제 (명시적 취소 또는 만료)
+    @Bean
+    public DefaultRedisScript<Long> releaseReservationScript() {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/release_reservation.lua"));
+        script.setResultType(Long.class);
+        return script;
+    }
 }
@@ -0,0 +1,160 @@
+package com.tetz.kb6_back.config;
+
+import com.tetz.kb6_back.dto.UserDto;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+// UserDto 전용 바이너리 직렬화기 (redis.serializer=binary)
+// [MAGIC][VERSION][FLAGS][id: UUID 16바이트 또는 길이+UTF-8][name: 길이+UTF-8][age: varint]
+// - @class 타입 문자열과 필드명을 저장하지 않고, 리플렉션 없이 필드를 직접 읽고 씀
+// - UserDto 외의 값(무효화 메시지 등)은 JSON 직렬화기에 위임
+// - 첫 바이트가 MAGIC 이 아니면 JSON 으로 읽으므로 기존 JSON 값도 그대로 조회 가능
+//   (JSON 값은 '{', '"', '[' 등으로 시작하고 0xB1 은 UTF-8 의 첫 바이트가 될 수 없음)
+public class UserDtoRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte VERSION = 1;
+
+    private static final int FLAG_ID_NULL = 1;
+    private static final int FLAG_ID_UUID = 1 << 1;
+    private static final int FLAG_NAME_NULL = 1 << 2;
+
+    private final RedisSerializer<Object> fallback;
+
+    public UserDtoRedisSerializer(RedisSerializer<Object> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!(value instanceof UserDto user)) {
+            return fallback.serialize(value);
+        }
+
+        int flags = 0;
+        UUID uuid = toUuid(user.getId());
+        byte[] id = null;
+        if (user.getId() == null) {
+            flags |= FLAG_ID_NULL;
+        } else if (uuid != null) {
+            flags |= FLAG_ID_UUID;
+        } else {
+            id = user.getId().getBytes(StandardCharsets.UTF_8);
+        }
+
+        byte[] name = null;
+        if (user.getName() == null) {
+            flags |= FLAG_NAME_NULL;
+        } else {
+            name = user.getName().getBytes(StandardCharsets.UTF_8);
+        }
+
+        int size = 3
+                + (uuid != null ? 16 : 0)
+                + (id != null ? 5 + id.length : 0)
+                + (name != null ? 5 + name.length : 0)
+                + 5;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(MAGIC).put(VERSION).put((byte) flags);
+
+        if (uuid != null) {
+            buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+        } else if (id != null) {
+            putBytes(buffer, id);
+        }
+        if (name != null) {
+            putBytes(buffer, name);
+        }
+        putVarInt(buffer, user.getAge());
+
+        byte[] result = new byte[buffer.position()];
+        buffer.flip().get(result);
+        return result;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < 2 || bytes[1] != VERSION) {
+            throw new SerializationException("Unsupported UserDto binary version");
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+            int flags = buffer.get();
+
+            String id = null;
+            if ((flags & FLAG_ID_UUID) != 0) {
+                id = new UUID(buffer.getLong(), buffer.getLong()).toString();
+            } else if ((flags & FLAG_ID_NULL) == 0) {
+                id = getString(buffer);
+            }
+
+            String name = (flags & FLAG_NAME_NULL) != 0 ? null : getString(buffer);
+            int age = getVarInt(buffer);
+
+            return new UserDto(id, name, age);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SerializationException("Corrupted UserDto binary value", e);
+        }
+    }
+
+    // 표준 형식(소문자 36자)의 UUID 만 16바이트로 압축, 그 외는 원문 그대로 저장해야 왕복 시 값이 보존됨
+    private static UUID toUuid(String id) {
+        if (id == null || id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        putVarInt(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = getVarInt(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid length: " + length);
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    // 부호 없는 7비트 가변 길이 정수 (작은 값일수록 적은 바이트, 최대 5바이트)
+    private static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer buffer) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -1,16 +1,31 @@
 package com.tetz.kb6_back.controller;
 
+import com.tetz.kb6_back.dto.LockTestResult;
 import com.tetz.kb6_back.entity.Product;
 import com.tetz.kb6_back.repository.ProductRepository;
+import com.tetz.kb6_back.service.AbstractProductService;
+import com.tetz.kb6_back.service.AtomicUpdateProductService;
+import com.tetz.kb6_back.service.CoalescingProductService;
+import com.tetz.kb6_back.service.DistributedLockProductService;
+import com.tetz.kb6_back.service.LedgerProductService;
 import com.tetz.kb6_back.service.OptimisticLockProductService;
 import com.tetz.kb6_back.service.PessimisticLockProductService;
+import com.tetz.kb6_back.service.ProductInventoryEngine;
+import com.tetz.kb6_back.service.RedisAtomicProductService;
+import com.tetz.kb6_back.service.StripedStockProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
 
 @RestController
 @RequestMapping("/api/lock-test")
@@ -20,6 +35,13 @@ public class LockTestController {
 
     private final OptimisticLockProductService optimisticLockService;
     private final PessimisticLockProductService pessimisticLockService;
+    private final RedisAtomicProductService redisAtomicService;
+    private final DistributedLockProductService distributedLockService;
+    private final CoalescingProductService coalescingService;
+    private final AtomicUpdateProductService atomicUpdateService;
+    private final StripedStockProductService stripedStockService;
+    private final LedgerProductService ledgerService;
+    private final ProductInventoryEngine inventoryEngine;
     private final ProductRepository productRepository;
 
     @PostMapping("/init")
@@ -49,55 +71,109 @@ public class LockTestController {
             @RequestParam Long productId,
             @RequestParam int quantity,
             @RequestParam int threadCount) {
+        optimisticLockService.resetRetryMetrics();
+        Map<String, Object> result = runLockTest("Optimistic", optimisticLockService, productId, quantity, threadCount);
+        result.put("retryMetrics", optimisticLockService.getRetryMetrics());
+        return ResponseEntity.ok(result);
+    }
 
-        // 테스트 시작 전 상품 정보 저장
-        Product beforeTest = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        int initialStock = beforeTest.getStock();
+    @PostMapping("/test/pessimistic")
+    public ResponseEntity<Map<String, Object>> testPessimisticLock(
+            @RequestParam Long productId,
+            @RequestParam int quantity,
+            @RequestParam int threadCount) {
+        return ResponseEntity.ok(runLockTest("Pessimistic", pessimisticLockService, productId, quantity, threadCount));
+    }
 
-        // 테스트 수행
-        long duration = optimisticLockService.performanceTest(productId, quantity, threadCount);
+    @PostMapping("/test/redis")
+    public ResponseEntity<Map<String, Object>> testRedisAtomic(
+            @RequestParam Long productId,
+            @RequestParam int quantity,
+            @RequestParam int threadCount) {
+        return ResponseEntity.ok(runLockTest("Redis", redisAtomicService, productId, quantity, threadCount));
+    }
 
-        // 테스트 후 상품 정보 조회
-        Product afterTest = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+    @PostMapping("/test/distributed")
+    public ResponseEntity<Map<String, Object>> testDistributedLock(
+            @RequestParam Long productId,
+            @RequestParam int quantity,
+            @RequestParam int threadCount) {
+        return ResponseEntity.ok(runLockTest("Distributed", distributedLockService, productId, quantity, threadCount));
+    }
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("lockType", "Optimistic");
-        result.put("duration", duration);
-        result.put("initialStock", initialStock);
-        result.put("finalStock", afterTest.getStock());
-        result.put("expectedFinalStock", initialStock - (quantity * threadCount));
-        result.put("isConsistent", (initialStock - (quantity * threadCount) == afterTest.getStock()));
+    @PostMapping("/test/coalescing")
+    public ResponseEntity<Map<String, Object>> testCoalescing(
+            @RequestParam Long productId,
+            @RequestParam int quantity,
+            @RequestParam int threadCount) {
+        return ResponseEntity.ok(runLockTest("Coalescing", coalescingService, productId, quantity, threadCount));
+    }
 
-        return ResponseEntity.ok(result);
+    @PostMapping("/test/atomic")
+    public ResponseEntity<Map<String, Object>> testAtomicUpdate(
+            @RequestParam Long productId,
+            @RequestParam int quantity,
+            @RequestParam int threadCount) {
+        return ResponseEntity.ok(runLockTest("AtomicUpdate", atomicUpdateService, productId, quantity, threadCount));
     }
 
-    @PostMapping("/test/pessimistic")
-    public ResponseEntity<Map<String, Object>> testPessimisticLock(
+    @PostMapping("/test/striped")
+    public ResponseEntity<Map<String, Object>> testStripedStock(
             @RequestParam Long productId,
             @RequestParam int quantity,
             @RequestParam int threadCount) {
+        return ResponseEntity.ok(runLockTest("Striped", stripedStockService, productId, quantity, threadCount));
+    }
 
-        // 테스트 시작 전 상품 정보 저장
-        Product beforeTest = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        int initialStock = beforeTest.getStock();
+    @PostMapping("/test/ledger")
+    public ResponseEntity<Map<String, Object>> testLedger(
+            @RequestParam Long productId,
+            @RequestParam int quantity,
+            @RequestParam int threadCount) {
+        return ResponseEntity.ok(runLockTest("Ledger", ledgerService, productId, quantity, threadCount));
+    }
 
-        // 테스트 수행
-        long duration = pessimisticLockService.performanceTest(productId, quantity, threadCount);
+    @PostMapping("/test/in-memory")
+    public ResponseEntity<Map<String, Object>> testInMemoryEngine(
+            @RequestParam Long productId,
+            @RequestParam int quantity,
+            @RequestParam int threadCount) {
+        return ResponseEntity.ok(runLockTest("InMemory", inventoryEngine, productId, quantity, threadCount));
+    }
 
-        // 테스트 후 상품 정보 조회
-        Product afterTest = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+    // 여러 상품을 담은 주문끼리 겹치는 상품을 서로 다른 순서로 요청하는 경합 테스트
+    // 각 주문은 productCount 개 중 itemsPerOrder 개를 임의 순서로 골라 상품마다 quantity 씩 차감
+    @PostMapping("/test/multi-item")
+    public ResponseEntity<Map<String, Object>> testMultiItem(
+            @RequestParam(defaultValue = "5") int productCount,
+            @RequestParam(defaultValue = "3") int itemsPerOrder,
+            @RequestParam int quantity,
+            @RequestParam int threadCount) {
+        if (itemsPerOrder < 1 || itemsPerOrder > productCount) {
+            throw new IllegalArgumentException("itemsPerOrder must be between 1 and productCount");
+        }
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("lockType", "Pessimistic");
-        result.put("duration", duration);
-        result.put("initialStock", initialStock);
-        result.put("finalStock", afterTest.getStock());
-        result.put("expectedFinalStock", initialStock - (quantity * threadCount));
-        result.put("isConsistent", (initialStock - (quantity * threadCount) == afterTest.getStock()));
+        // 모든 주문이 한 상품에 몰려도 재고가 부족하지 않도록 설정해서 실패는 곧 락/충돌 실패를 의미
+        int stock = quantity * threadCount;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("productCount", productCount);
+        result.put("itemsPerOrder", itemsPerOrder);
+
+        List<Long> pessimisticProductIds = createTestProducts("Pessimistic Multi-Item Test Product", productCount, stock);
+        List<Map<Long, Integer>> pessimisticOrders = randomOrders(pessimisticProductIds, itemsPerOrder, quantity, threadCount);
+        LockTestResult pessimisticReport = pessimisticLockService.runMultiItemPerformanceTest(pessimisticOrders);
+        pause();
+        result.put("pessimistic", multiItemResult(pessimisticReport, pessimisticProductIds, pessimisticOrders, stock));
+
+        optimisticLockService.resetRetryMetrics();
+        List<Long> optimisticProductIds = createTestProducts("Optimistic Multi-Item Test Product", productCount, stock);
+        List<Map<Long, Integer>> optimisticOrders = randomOrders(optimisticProductIds, itemsPerOrder, quantity, threadCount);
+        LockTestResult optimisticReport = optimisticLockService.runMultiItemPerformanceTest(optimisticOrders);
+        pause();
+        Map<String, Object> optimisticResult = multiItemResult(optimisticReport, optimisticProductIds, optimisticOrders, stock);
+        optimisticResult.put("retryMetrics", optimisticLockService.getRetryMetrics());
+        result.put("optimistic", optimisticResult);
 
         return ResponseEntity.ok(result);
     }
@@ -109,64 +185,217 @@ public class LockTestController {
             @RequestParam int threadCount) {
 
         // 낙관적 락 테스트용 상품 생성
-        Product optimisticProduct = Product.builder()
-                .name("Optimistic Lock Test Product")
-                .stock(stock)
-                .version(0L)
-                .build();
-        optimisticProduct = productRepository.save(optimisticProduct);
-        Long optimisticProductId = optimisticProduct.getId();
+        Long optimisticProductId = createTestProduct("Optimistic Lock Test Product", stock).getId();
 
         // 비관적 락 테스트용 상품 생성
-        Product pessimisticProduct = Product.builder()
-                .name("Pessimistic Lock Test Product")
-                .stock(stock)
-                .version(0L)
-                .build();
-        pessimisticProduct = productRepository.save(pessimisticProduct);
-        Long pessimisticProductId = pessimisticProduct.getId();
+        Long pessimisticProductId = createTestProduct("Pessimistic Lock Test Product", stock).getId();
 
         // 낙관적 락 테스트 수행 - 스레드 수를 줄이거나 배치 크기 조정 고려
-        long optimisticDuration = optimisticLockService.performanceTest(
+        optimisticLockService.resetRetryMetrics();
+        LockTestResult optimisticReport = optimisticLockService.runPerformanceTest(
                 optimisticProductId, quantity, threadCount);
+        long optimisticDuration = optimisticReport.getDurationMillis();
 
         // 테스트 결과 조회하기 전에 시스템이 안정화될 시간 부여
-        try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        pause();
 
         // 비관적 락 테스트 수행
-        long pessimisticDuration = pessimisticLockService.performanceTest(
+        LockTestResult pessimisticReport = pessimisticLockService.runPerformanceTest(
                 pessimisticProductId, quantity, threadCount);
+        long pessimisticDuration = pessimisticReport.getDurationMillis();
 
         // 테스트 결과 조회하기 전에 시스템이 안정화될 시간 부여
-        try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        pause();
 
         // 테스트 결과 조회
-        Product optimisticAfterTest = productRepository.findById(optimisticProductId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-
-        Product pessimisticAfterTest = productRepository.findById(pessimisticProductId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        Product optimisticAfterTest = findProduct(optimisticProductId);
+        Product pessimisticAfterTest = findProduct(pessimisticProductId);
 
         Map<String, Object> result = new HashMap<>();
         result.put("optimisticLockDuration", optimisticDuration);
         result.put("pessimisticLockDuration", pessimisticDuration);
         result.put("optimisticFinalStock", optimisticAfterTest.getStock());
         result.put("pessimisticFinalStock", pessimisticAfterTest.getStock());
+        result.put("optimisticRetryMetrics", optimisticLockService.getRetryMetrics());
         result.put("expectedFinalStock", stock - (quantity * threadCount));
         result.put("optimisticIsConsistent",
                 (stock - (quantity * threadCount) == optimisticAfterTest.getStock()));
         result.put("pessimisticIsConsistent",
                 (stock - (quantity * threadCount) == pessimisticAfterTest.getStock()));
-        result.put("faster", optimisticDuration < pessimisticDuration ? "Optimistic" : "Pessimistic");
+
+        Map<String, Long> durations = new LinkedHashMap<>();
+        durations.put("Optimistic", optimisticDuration);
+        durations.put("Pessimistic", pessimisticDuration);
+
+        // 처리량과 커넥션 풀 대기 현황 (스레드 생성이 아니라 풀 대기가 병목인지 확인용)
+        Map<String, LockTestResult> reports = new LinkedHashMap<>();
+        reports.put("optimistic", optimisticReport);
+        reports.put("pessimistic", pessimisticReport);
+
+        // Redis 원자적 차감 테스트
+        durations.put("Redis", compareCase("redis", "Redis Atomic Test Product",
+                redisAtomicService, stock, quantity, threadCount, result, reports));
+
+        // Redis 분산 락 테스트
+        durations.put("Distributed", compareCase("distributed", "Distributed Lock Test Product",
+                distributedLockService, stock, quantity, threadCount, result, reports));
+
+        // 요청 병합(coalescing) 테스트
+        durations.put("Coalescing", compareCase("coalescing", "Coalescing Test Product",
+                coalescingService, stock, quantity, threadCount, result, reports));
+
+        // 조건부 단일 UPDATE 테스트
+        durations.put("AtomicUpdate", compareCase("atomicUpdate", "Atomic Update Test Product",
+                atomicUpdateService, stock, quantity, threadCount, result, reports));
+
+        // 재고 조각(striped) 테스트
+        durations.put("Striped", compareCase("striped", "Striped Stock Test Product",
+                stripedStockService, stock, quantity, threadCount, result, reports));
+
+        // 추가 전용 원장(ledger) 테스트
+        durations.put("Ledger", compareCase("ledger", "Ledger Test Product",
+                ledgerService, stock, quantity, threadCount, result, reports));
+
+        // 메모리 단일 writer 엔진 테스트
+        durations.put("InMemory", compareCase("inMemory", "In-Memory Engine Test Product",
+                inventoryEngine, stock, quantity, threadCount, result, reports));
+
+        result.put("reports", reports);
+        result.put("stripedScaling", stripedScaling(stock, quantity, threadCount));
+        result.put("faster", Collections.min(durations.entrySet(), Map.Entry.comparingByValue()).getKey());
 
         return ResponseEntity.ok(result);
     }
+
+    // 단일 상품에 대한 동시성 테스트 후 재고 정합성까지 확인
+    private Map<String, Object> runLockTest(String lockType, AbstractProductService service,
+                                            Long productId, int quantity, int threadCount) {
+        // 테스트 시작 전 상품 정보 저장
+        int initialStock = findProduct(productId).getStock();
+
+        // 테스트 수행
+        LockTestResult report = service.runPerformanceTest(productId, quantity, threadCount);
+        long duration = report.getDurationMillis();
+
+        // 테스트 후 상품 정보 조회
+        Product afterTest = findProduct(productId);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("lockType", lockType);
+        result.put("duration", duration);
+        result.put("initialStock", initialStock);
+        result.put("finalStock", afterTest.getStock());
+        result.put("expectedFinalStock", initialStock - (quantity * threadCount));
+        result.put("isConsistent", (initialStock - (quantity * threadCount) == afterTest.getStock()));
+        result.put("report", report);
+        return result;
+    }
+
+    // 비교 대상 하나를 새 상품으로 테스트하고 <label>Duration/FinalStock/IsConsistent 로 기록
+    private long compareCase(String label, String productName, AbstractProductService service,
+                             int stock, int quantity, int threadCount,
+                             Map<String, Object> result, Map<String, LockTestResult> reports) {
+        Long productId = createTestProduct(productName, stock).getId();
+
+        LockTestResult report = service.runPerformanceTest(productId, quantity, threadCount);
+        long duration = report.getDurationMillis();
+        reports.put(label, report);
+        pause();
+
+        Product afterTest = findProduct(productId);
+        result.put(label + "Duration", duration);
+        result.put(label + "FinalStock", afterTest.getStock());
+        result.put(label + "IsConsistent", (stock - (quantity * threadCount) == afterTest.getStock()));
+        return duration;
+    }
+
+    // 스레드 수를 늘려 가며 단일 행(비관적 락) vs 재고 조각(striped) 처리량 비교
+    private List<Map<String, Object>> stripedScaling(int stock, int quantity, int threadCount) {
+        TreeSet<Integer> threadSteps = new TreeSet<>();
+        threadSteps.add(Math.max(1, threadCount / 4));
+        threadSteps.add(Math.max(1, threadCount / 2));
+        threadSteps.add(threadCount);
+
+        List<Map<String, Object>> steps = new ArrayList<>();
+        for (int threads : threadSteps) {
+            Long singleRowProductId = createTestProduct("Single Row Scaling Test Product", stock).getId();
+            LockTestResult singleRow = pessimisticLockService.runPerformanceTest(singleRowProductId, quantity, threads);
+            pause();
+
+            Long stripedProductId = createTestProduct("Striped Scaling Test Product", stock).getId();
+            LockTestResult striped = stripedStockService.runPerformanceTest(stripedProductId, quantity, threads);
+            pause();
+
+            Map<String, Object> step = new LinkedHashMap<>();
+            step.put("threadCount", threads);
+            step.put("singleRowThroughput", singleRow.getThroughputPerSec());
+            step.put("stripedThroughput", striped.getThroughputPerSec());
+            step.put("speedup", singleRow.getThroughputPerSec() == 0 ? 0.0
+                    : striped.getThroughputPerSec() / singleRow.getThroughputPerSec());
+            steps.add(step);
+        }
+        return steps;
+    }
+
+    private List<Long> createTestProducts(String name, int count, int stock) {
+        List<Long> productIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            productIds.add(createTestProduct(name + " " + i, stock).getId());
+        }
+        return productIds;
+    }
+
+    // 상품 순서를 섞어서 담아 요청 순서대로 잠그면 교착 상태가 생기는 조합을 만듦
+    private List<Map<Long, Integer>> randomOrders(List<Long> productIds, int itemsPerOrder, int quantity, int orderCount) {
+        List<Map<Long, Integer>> orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            List<Long> shuffled = new ArrayList<>(productIds);
+            Collections.shuffle(shuffled, ThreadLocalRandom.current());
+
+            Map<Long, Integer> order = new LinkedHashMap<>();
+            shuffled.subList(0, itemsPerOrder).forEach(productId -> order.put(productId, quantity));
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    // 실패한 주문이 없을 때만 상품별 기대 재고와 비교 (실패가 있으면 어느 주문이 반영됐는지 알 수 없음)
+    private Map<String, Object> multiItemResult(LockTestResult report, List<Long> productIds,
+                                                List<Map<Long, Integer>> orders, int stock) {
+        Map<Long, Integer> expectedStocks = new LinkedHashMap<>();
+        productIds.forEach(productId -> expectedStocks.put(productId, stock));
+        orders.forEach(order -> order.forEach((productId, quantity) -> expectedStocks.merge(productId, -quantity, Integer::sum)));
+
+        Map<Long, Integer> finalStocks = new LinkedHashMap<>();
+        productIds.forEach(productId -> finalStocks.put(productId, findProduct(productId).getStock()));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("report", report);
+        result.put("finalStocks", finalStocks);
+        result.put("expectedFinalStocks", expectedStocks);
+        result.put("isConsistent", report.getFailCount() == 0 && expectedStocks.equals(finalStocks));
+        return result;
+    }
+
+    private Product createTestProduct(String name, int stock) {
+        Product product = Product.builder()
+                .name(name)
+                .stock(stock)
+                .version(0L)
+                .build();
+        return productRepository.save(product);
+    }
+
+    private Product findProduct(Long productId) {
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
\ No newline at end of file
@@ -1,11 +1,18 @@
 package com.tetz.kb6_back.controller;
 
+import com.tetz.kb6_back.dto.LatencyReport;
+import com.tetz.kb6_back.dto.LoadTestRequest;
+import com.tetz.kb6_back.dto.LoadTestResult;
+import com.tetz.kb6_back.service.HttpLoadTestService;
 import com.tetz.kb6_back.service.PerformanceTestService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
@@ -16,6 +23,7 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class PerformanceTestController {
     private final PerformanceTestService performanceTestService;
+    private final HttpLoadTestService httpLoadTestService;
 
     @GetMapping("/run/{dataCount}")
     public ResponseEntity<String> runTest(@PathVariable int dataCount) {
@@ -31,12 +39,18 @@ public class PerformanceTestController {
         var users = performanceTestService.generateTestUsers(dataCount);
 
         // 저장 성능 테스트
-        long redisSaveTime = performanceTestService.testRedisSave(users);
-        long mysqlSaveTime = performanceTestService.testMySQLSave(users);
+        LatencyReport redisSave = performanceTestService.measureRedisSave(users);
+        LatencyReport mysqlSave = performanceTestService.measureMySQLSave(users);
+        long redisSaveTime = redisSave.getTotalMillis();
+        long mysqlSaveTime = mysqlSave.getTotalMillis();
+        long mysqlBatchSaveTime = performanceTestService.testMySQLBatchSave(
+                performanceTestService.generateTestUsers(dataCount));
 
         // 조회 성능 테스트
-        long redisReadTime = performanceTestService.testRedisRead(users);
-        long mysqlReadTime = performanceTestService.testMySQLRead(users);
+        LatencyReport redisRead = performanceTestService.measureRedisRead(users);
+        LatencyReport mysqlRead = performanceTestService.measureMySQLRead(users);
+        long redisReadTime = redisRead.getTotalMillis();
+        long mysqlReadTime = mysqlRead.getTotalMillis();
 
         // 결과 저장
         results.put("dataCount", dataCount);
@@ -44,24 +58,68 @@ public class PerformanceTestController {
         Map<String, Object> saveResults = new HashMap<>();
         saveResults.put("redis", redisSaveTime);
         saveResults.put("mysql", mysqlSaveTime);
+        saveResults.put("mysqlBatch", mysqlBatchSaveTime);
         saveResults.put("ratio", (double)mysqlSaveTime / redisSaveTime);
+        saveResults.put("redisLatency", redisSave);
+        saveResults.put("mysqlLatency", mysqlSave);
         results.put("save", saveResults);
 
         Map<String, Object> readResults = new HashMap<>();
         readResults.put("redis", redisReadTime);
         readResults.put("mysql", mysqlReadTime);
         readResults.put("ratio", (double)mysqlReadTime / redisReadTime);
+        readResults.put("redisLatency", redisRead);
+        readResults.put("mysqlLatency", mysqlRead);
         results.put("read", readResults);
 
         return ResponseEntity.ok(results);
     }
 
+    // 동시 부하 테스트 (Redis, MySQL 순서로 각각 durationSeconds 동안 실행)
+    @PostMapping("/load")
+    public ResponseEntity<Map<String, LoadTestResult>> runLoadTest(@RequestBody LoadTestRequest request) {
+        return ResponseEntity.ok(performanceTestService.runLoadTest(request));
+    }
+
     @GetMapping("/redis-read/{dataCount}")
     public ResponseEntity<Long> testRedisRead(@PathVariable int dataCount) {
         long time = performanceTestService.testRedisBulkRead(dataCount);
         return ResponseEntity.ok(time);
     }
 
+    @GetMapping("/redis-batch-read/{dataCount}")
+    public ResponseEntity<Long> testRedisBatchRead(@PathVariable int dataCount) {
+        long time = performanceTestService.testRedisBatchRead(dataCount);
+        return ResponseEntity.ok(time);
+    }
+
+    @GetMapping("/redis-batch-save/{dataCount}")
+    public ResponseEntity<Long> testRedisBatchSave(@PathVariable int dataCount) {
+        var users = performanceTestService.generateTestUsers(dataCount);
+        long time = performanceTestService.testRedisBatchSave(users);
+        return ResponseEntity.ok(time);
+    }
+
+    @GetMapping("/mysql-batch-save/{dataCount}")
+    public ResponseEntity<Long> testMySQLBatchSave(@PathVariable int dataCount) {
+        var users = performanceTestService.generateTestUsers(dataCount);
+        long time = performanceTestService.testMySQLBatchSave(users);
+        return ResponseEntity.ok(time);
+    }
+
+    @GetMapping("/redis-memory/{dataCount}")
+    public ResponseEntity<Map<String, Object>> testRedisMemoryUsage(@PathVariable int dataCount) {
+        return ResponseEntity.ok(performanceTestService.testRedisMemoryUsage(dataCount));
+    }
+
+    // MVC(/api/redis) vs 리액티브(/api/reactive/redis) 조회 엔드포인트 HTTP 부하 비교
+    @GetMapping("/reactive-compare/{dataCount}")
+    public ResponseEntity<Map<String, Object>> compareReactive(@PathVariable int dataCount,
+                                                               @RequestParam(defaultValue = "10000") int requests,
+                                                               @RequestParam(defaultValue = "500") int concurrency) {
+        return ResponseEntity.ok(httpLoadTestService.compareRedisEndpoints(dataCount, requests, concurrency));
+    }
+
     @GetMapping("/mysql-read/{dataCount}")
     public ResponseEntity<Long> testMySQLRead(@PathVariable int dataCount) {
         long time = performanceTestService.testMySQLBulkRead(dataCount);
@@ -69,8 +127,7 @@ public class PerformanceTestController {
     }
 
     @GetMapping("/mysql-findall/{dataCount}")
-    public ResponseEntity<Long> testMySQLFindAll(@PathVariable int dataCount) {
-        long time = performanceTestService.testMySQLFindAll(dataCount);
-        return ResponseEntity.ok(time);
+    public ResponseEntity<Map<String, Long>> testMySQLFindAll(@PathVariable int dataCount) {
+        return ResponseEntity.ok(performanceTestService.testMySQLFindAll(dataCount));
     }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.tetz.kb6_back.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.service.ReactiveRedisService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.Disposable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.springframework.web.servlet.function.RouterFunctions.route;
+
+// /api/redis 와 같은 계약의 리액티브 버전 (/api/reactive/redis)
+// 서블릿(MVC) 애플리케이션이므로 WebFlux 대신 WebMvc.fn 라우트에서 Mono/Flux 를 비동기 응답으로 반환
+// -> Tomcat 스레드는 요청을 넘긴 뒤 바로 반환되고, Redis 응답이 오면 Lettuce 이벤트 루프에서 응답을 완료
+@Configuration
+@RequiredArgsConstructor
+public class ReactiveRedisRouter {
+    private static final Duration USER_TTL = Duration.ofHours(1);
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final ReactiveRedisService reactiveRedisService;
+    private final ObjectMapper objectMapper;
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveRedisRoutes() {
+        return route()
+                .path("/api/reactive/redis", builder -> builder
+                        .POST("", this::saveUser)
+                        .POST("/bulk/get", this::getUsers)
+                        .GET("/{userId}", this::getUser)
+                        .DELETE("/{userId}", this::deleteUser))
+                .build();
+    }
+
+    private ServerResponse saveUser(ServerRequest request) throws Exception {
+        UserDto user = request.body(UserDto.class);
+        return ServerResponse.async(reactiveRedisService.saveUserWithExpiration(user, USER_TTL)
+                .thenReturn(ServerResponse.ok().build()));
+    }
+
+    private ServerResponse getUser(ServerRequest request) {
+        return ServerResponse.async(reactiveRedisService.getUser(request.pathVariable("userId"))
+                .map(user -> ServerResponse.ok().body(user))
+                .defaultIfEmpty(ServerResponse.notFound().build()));
+    }
+
+    private ServerResponse deleteUser(ServerRequest request) {
+        return ServerResponse.async(reactiveRedisService.deleteUser(request.pathVariable("userId"))
+                .thenReturn(ServerResponse.ok().build()));
+    }
+
+    // 조회된 사용자를 NDJSON 으로 한 줄씩 스트리밍 (없는 사용자는 생략)
+    // JSON 메시지 컨버터는 application/x-ndjson 을 쓰지 못하고 원소 사이에 줄바꿈도 넣지 않으므로
+    // SQLController.streamUsers 처럼 사용자마다 직접 직렬화해서 '\n' 을 붙임
+    private ServerResponse getUsers(ServerRequest request) throws Exception {
+        List<String> userIds = request.body(new ParameterizedTypeReference<List<String>>() {});
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .stream(stream -> {
+                    Disposable subscription = reactiveRedisService.getUsers(userIds).subscribe(
+                            user -> writeLine(stream, user),
+                            stream::error,
+                            stream::complete);
+                    // 클라이언트가 끊기거나 시간이 초과되면 남은 조회를 취소
+                    stream.onError(e -> subscription.dispose());
+                    stream.onTimeout(subscription::dispose);
+                });
+    }
+
+    private void writeLine(ServerResponse.StreamBuilder stream, UserDto user) {
+        try {
+            stream.write(objectMapper.writeValueAsBytes(user))
+                    .write(NEWLINE)
+                    .flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,10 +2,14 @@ package com.tetz.kb6_back.controller;
 
 import com.tetz.kb6_back.dto.UserDto;
 import com.tetz.kb6_back.service.RedisService;
+import com.tetz.kb6_back.service.UserCacheWarmer;
+import com.tetz.kb6_back.service.UserNearCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @RestController
@@ -13,6 +17,8 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class RedisController {
     private final RedisService redisService;
+    private final UserNearCache nearCache;
+    private final UserCacheWarmer cacheWarmer;
 
     @PostMapping
     public ResponseEntity<Void> saveUser(@RequestBody UserDto user) {
@@ -29,9 +35,45 @@ public class RedisController {
         return ResponseEntity.ok(user);
     }
 
+    // near-cache 를 거치지 않고 항상 Redis 에서 조회 (리액티브 엔드포인트와 같은 조건의 비교용)
+    @GetMapping("/direct/{userId}")
+    public ResponseEntity<UserDto> getUserFromRedis(@PathVariable String userId) {
+        UserDto user = redisService.getUserFromRedis(userId);
+        if (user == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(user);
+    }
+
     @DeleteMapping("/{userId}")
     public ResponseEntity<Void> deleteUser(@PathVariable String userId) {
         redisService.deleteUser(userId);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<Void> saveUsers(@RequestBody List<UserDto> users) {
+        redisService.saveUsersWithExpiration(users, 1, TimeUnit.HOURS);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/bulk/get")
+    public ResponseEntity<Map<String, UserDto>> getUsers(@RequestBody List<String> userIds) {
+        return ResponseEntity.ok(redisService.getUsers(userIds));
+    }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<Long> deleteUsers(@RequestBody List<String> userIds) {
+        return ResponseEntity.ok(redisService.deleteUsers(userIds));
+    }
+
+    @GetMapping("/near-cache/stats")
+    public ResponseEntity<Map<String, Object>> getNearCacheStats() {
+        return ResponseEntity.ok(nearCache.getStats());
+    }
+
+    @GetMapping("/warmup/status")
+    public ResponseEntity<Map<String, Object>> getWarmupStatus() {
+        return ResponseEntity.ok(cacheWarmer.getStatus());
+    }
 }
\ No newline at end of file
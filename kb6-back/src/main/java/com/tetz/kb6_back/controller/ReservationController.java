@@ -0,0 +1,45 @@
+package com.tetz.kb6_back.controller;
+
+import com.tetz.kb6_back.dto.StockReservation;
+import com.tetz.kb6_back.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// 재고 예약 -> (결제) -> 확정/취소, 확정하지 않은 예약은 TTL 이 지나면 자동으로 가용 재고로 되돌아감
+@RestController
+@RequestMapping("/api/reservations")
+@RequiredArgsConstructor
+public class ReservationController {
+    private final StockReservationService reservationService;
+
+    @PostMapping
+    public ResponseEntity<StockReservation> reserve(
+            @RequestParam Long productId,
+            @RequestParam int quantity) {
+        return ResponseEntity.ok(reservationService.reserve(productId, quantity));
+    }
+
+    @PostMapping("/{reservationId}/confirm")
+    public ResponseEntity<Void> confirm(
+            @PathVariable String reservationId,
+            @RequestParam Long productId) {
+        reservationService.confirm(productId, reservationId);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/{reservationId}")
+    public ResponseEntity<Void> release(
+            @PathVariable String reservationId,
+            @RequestParam Long productId) {
+        reservationService.release(productId, reservationId);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/products/{productId}")
+    public ResponseEntity<Map<String, Object>> getStatus(@PathVariable Long productId) {
+        return ResponseEntity.ok(reservationService.getStatus(productId));
+    }
+}
@@ -1,11 +1,17 @@
 package com.tetz.kb6_back.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.dto.UserPageDto;
 import com.tetz.kb6_back.service.UserSQLService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -13,6 +19,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SQLController {
     private final UserSQLService userSQLService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<Void> saveUser(@RequestBody UserDto user) {
@@ -35,6 +42,32 @@ public class SQLController {
         return ResponseEntity.ok(users);
     }
 
+    // 키셋 페이지네이션: /api/sql/page?size=100 -> 응답의 nextCursor 를 after 로 넘겨 다음 페이지 조회
+    @GetMapping("/page")
+    public ResponseEntity<UserPageDto> getUsersPage(@RequestParam(required = false) String after,
+                                                    @RequestParam(defaultValue = "100") int size) {
+        if (size < 1 || size > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userSQLService.getUsersPage(after, size));
+    }
+
+    // 전체 사용자를 NDJSON(한 줄에 사용자 하나)으로 스트리밍, 서버 메모리는 테이블 크기와 무관하게 일정
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        StreamingResponseBody body = out -> userSQLService.streamAllUsers(user -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PutMapping
     public ResponseEntity<Void> updateUser(@RequestBody UserDto user) {
         userSQLService.updateUser(user);
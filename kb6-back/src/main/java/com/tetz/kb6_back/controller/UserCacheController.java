@@ -0,0 +1,41 @@
+package com.tetz.kb6_back.controller;
+
+import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.service.UserCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserCacheController {
+    private final UserCacheService userCacheService;
+
+    @PostMapping
+    public ResponseEntity<Void> saveUser(@RequestBody UserDto user) {
+        userCacheService.saveUser(user);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<UserDto> getUser(@PathVariable String userId) {
+        UserDto user = userCacheService.getUser(userId);
+        if (user == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(user);
+    }
+
+    @PutMapping
+    public ResponseEntity<Void> updateUser(@RequestBody UserDto user) {
+        userCacheService.updateUser(user);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<Void> deleteUser(@PathVariable String userId) {
+        userCacheService.deleteUser(userId);
+        return ResponseEntity.ok().build();
+    }
+}
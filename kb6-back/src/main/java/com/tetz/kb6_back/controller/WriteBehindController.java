@@ -0,0 +1,45 @@
+package com.tetz.kb6_back.controller;
+
+import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.service.RedisService;
+import com.tetz.kb6_back.service.UserWriteBehindService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Redis 반영 후 바로 응답, MySQL 반영은 비동기 (write-behind)
+@RestController
+@RequestMapping("/api/write-behind/users")
+@RequiredArgsConstructor
+public class WriteBehindController {
+    private final UserWriteBehindService writeBehindService;
+    private final RedisService redisService;
+
+    @PostMapping
+    public ResponseEntity<Void> saveUser(@RequestBody UserDto user) {
+        writeBehindService.saveUser(user);
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<UserDto> getUser(@PathVariable String userId) {
+        UserDto user = redisService.getUser(userId);
+        if (user == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(user);
+    }
+
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<Void> deleteUser(@PathVariable String userId) {
+        writeBehindService.deleteUser(userId);
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(writeBehindService.getStats());
+    }
+}
@@ -0,0 +1,24 @@
+package com.tetz.kb6_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 개별 작업 지연 시간 분포 (단위: 마이크로초) + 전체 처리량
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LatencyReport {
+    private long count;
+    private long totalMillis;
+    private double throughputPerSec;
+
+    private double meanMicros;
+    private double p50Micros;
+    private double p90Micros;
+    private double p99Micros;
+    private double p999Micros;
+    private double maxMicros;
+}
@@ -0,0 +1,22 @@
+package com.tetz.kb6_back.dto;
+
+import lombok.Data;
+
+// 시간 기반 동시 부하 테스트 설정 (요청 본문에서 생략한 항목은 기본값 사용)
+@Data
+public class LoadTestRequest {
+    // 동시에 요청을 보내는 클라이언트(스레드) 수
+    private int concurrency = 50;
+
+    // 측정 시간 (램프업 포함)
+    private int durationSeconds = 30;
+
+    // 이 시간 동안 클라이언트를 균등 간격으로 하나씩 시작
+    private int rampUpSeconds = 5;
+
+    // 전체 요청 중 조회 비율 (0.0 ~ 1.0), 나머지는 저장
+    private double readRatio = 0.8;
+
+    // 미리 적재해 두고 무작위로 접근할 사용자 수
+    private int userCount = 10000;
+}
@@ -0,0 +1,25 @@
+package com.tetz.kb6_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 저장소별 부하 테스트 결과
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoadTestResult {
+    private String store;
+    private int concurrency;
+    private long durationMillis;
+
+    private long operationCount;
+    private long errorCount;
+    private double throughputPerSec;
+
+    // 조회/저장 각각의 지연 시간 분포
+    private LatencyReport read;
+    private LatencyReport write;
+}
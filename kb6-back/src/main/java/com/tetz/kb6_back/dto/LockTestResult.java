@@ -0,0 +1,30 @@
+package com.tetz.kb6_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LockTestResult {
+    private String lockType;
+    private int threadCount;
+    private long durationMillis;
+    private int successCount;
+    private int failCount;
+    private double throughputPerSec;
+
+    // 스레드별 decreaseStock 호출 지연 시간 분포
+    private LatencyReport latency;
+
+    // 실행 스레드 종류 (virtual / platform)
+    private String executorMode;
+
+    // 테스트 동안 샘플링한 Hikari 커넥션 풀 상태
+    private int maxPoolSize;
+    private int maxActiveConnections;
+    private int maxThreadsAwaitingConnection;
+}
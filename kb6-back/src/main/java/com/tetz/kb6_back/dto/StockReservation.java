@@ -0,0 +1,18 @@
+package com.tetz.kb6_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservation {
+    private String reservationId;
+    private Long productId;
+    private int quantity;
+    // 이 시각(epoch ms)까지 확정하지 않으면 자동으로 가용 재고로 되돌아감
+    private long expiresAt;
+}
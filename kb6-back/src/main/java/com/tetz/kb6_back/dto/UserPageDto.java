@@ -0,0 +1,19 @@
+package com.tetz.kb6_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// 키셋 페이지네이션 결과, 다음 페이지는 nextCursor 를 after 로 넘겨서 조회
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPageDto {
+    private List<UserDto> users;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,44 @@
+package com.tetz.kb6_back.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 재고 차감 원장 (INSERT 만 하므로 같은 상품에 대한 차감끼리 행 락 경합이 없음)
+// 가용 재고 = products.stock(스냅샷) - 아직 스냅샷에 반영되지 않은(applied=false) 원장 수량 합계
+// - idx_inventory_ledger_product: 상품별 미반영 원장 조회 (압축, 가용 재고 계산)
+// - idx_inventory_ledger_unapplied: 압축 대상 상품 목록 조회, 계속 쌓이는 반영 완료 행은 읽지 않음
+@Entity
+@Table(name = "inventory_ledger",
+        indexes = {
+                @Index(name = "idx_inventory_ledger_product", columnList = "product_id, applied, id"),
+                @Index(name = "idx_inventory_ledger_unapplied", columnList = "applied, product_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // 차감 수량 (양수)
+    private int quantity;
+
+    // 압축기가 처리했으면 true (행은 지우지 않고 이력으로 남김)
+    private boolean applied;
+
+    // 스냅샷 재고가 먼저 줄어서 products.stock 에 반영하지 못하고 버린 초과 판매분이면 true (applied 도 true)
+    private boolean rejected;
+
+    private LocalDateTime createdAt;
+}
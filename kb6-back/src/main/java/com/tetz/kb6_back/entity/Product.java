@@ -24,4 +24,6 @@ public class Product {
 
     @Version
     private Long version; // 낙관적 락을 위한 버전 필드
+
+    private Long fencingToken; // 분산 락으로 마지막에 쓴 보유자의 펜싱 토큰
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.tetz.kb6_back.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 상품 재고를 여러 행으로 나눈 조각 (striped stock), 전체 재고 = 모든 조각 재고의 합
+// 동시 차감이 서로 다른 행을 잠그도록 해서 한 행의 락 경합으로 처리량이 제한되지 않게 함
+@Entity
+@Table(name = "product_stock_shards",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "shard_no"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductStockShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "shard_no", nullable = false)
+    private int shardNo;
+
+    private int stock;
+}
@@ -2,19 +2,52 @@ package com.tetz.kb6_back.entity;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Transient;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "users")
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
-public class User {
+public class User implements Persistable<String> {
     @Id
     private String id;
     private String name;
     private int age;
-}
\ No newline at end of file
+
+    // id 를 직접 할당하므로 Spring Data 가 신규 여부를 판단할 수 없음
+    // 기본값 false 로 기존 save(merge) 동작을 유지하고, 대량 INSERT 시에만 markNew() 로 SELECT 를 생략
+    // 영속 상태 표시일 뿐 값이 아니므로 equals/hashCode/toString 에서 제외
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newEntity;
+
+    public User(String id, String name, int age) {
+        this.id = id;
+        this.name = name;
+        this.age = age;
+    }
+
+    public void markNew() {
+        this.newEntity = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
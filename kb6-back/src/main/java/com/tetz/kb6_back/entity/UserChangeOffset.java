@@ -0,0 +1,25 @@
+package com.tetz.kb6_back.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// write-behind 가 사용자별로 마지막으로 반영한 변경(스트림 id, 자리수를 맞춘 문자열이라 문자열 비교 = 순서 비교)
+// 사용자 행이 삭제돼도 남겨서, 늦게 재처리된 이전 변경이 최신 값을 덮어쓰거나 삭제된 사용자를 되살리지 않도록 함
+@Entity
+@Table(name = "user_change_offsets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeOffset {
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "last_change_id", nullable = false, length = 40)
+    private String lastChangeId;
+}
@@ -0,0 +1,35 @@
+package com.tetz.kb6_back.repository;
+
+import com.tetz.kb6_back.entity.InventoryLedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface InventoryLedgerRepository extends JpaRepository<InventoryLedgerEntry, Long> {
+
+    // 압축 대상: 반영되지 않은 항목을 오래된 순으로 limit 개
+    List<InventoryLedgerEntry> findByProductIdAndAppliedFalseOrderByIdAsc(Long productId, Limit limit);
+
+    // (applied, product_id) 인덱스의 applied = false 구간만 읽음 (매 압축 주기마다 실행되므로 전체 스캔 방지)
+    @Query("SELECT DISTINCT l.productId FROM InventoryLedgerEntry l WHERE l.applied = false")
+    List<Long> findProductIdsWithUnappliedEntries();
+
+    @Modifying
+    @Query("UPDATE InventoryLedgerEntry l SET l.applied = true WHERE l.id IN :ids")
+    int markApplied(@Param("ids") List<Long> ids);
+
+    // 반영하지 못한 초과분은 더 이상 가용 재고에서 빼지 않도록 처리 완료 + rejected 로 표시
+    @Modifying
+    @Query("UPDATE InventoryLedgerEntry l SET l.applied = true, l.rejected = true WHERE l.id IN :ids")
+    int markRejected(@Param("ids") List<Long> ids);
+
+    // 스냅샷과 원장 합계를 한 문장에서 읽어야 압축이 그 사이에 끼어도 일관된 값이 나옴
+    @Query(value = "SELECT CAST(p.stock - COALESCE((SELECT SUM(l.quantity) FROM inventory_ledger l " +
+            "WHERE l.product_id = p.id AND l.applied = false), 0) AS SIGNED) FROM products p WHERE p.id = :productId", nativeQuery = true)
+    Optional<Long> findAvailableStock(@Param("productId") Long productId);
+}
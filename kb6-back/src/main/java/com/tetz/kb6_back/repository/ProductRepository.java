@@ -3,10 +3,13 @@ package com.tetz.kb6_back.repository;
 import com.tetz.kb6_back.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -23,4 +26,21 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT p FROM Product p WHERE p.id = :id")
     Optional<Product> findByIdWithPessimisticWriteLock(@Param("id") Long id);
+
+    // 여러 상품을 한 문장에서 id 순서대로 잠금 (SELECT ... WHERE id IN (...) ORDER BY id FOR UPDATE)
+    // 모든 주문이 같은 순서로 잠그므로 상품 조합이 겹쳐도 교착 상태가 생기지 않음
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdWithPessimisticWriteLock(@Param("ids") Collection<Long> ids);
+
+    // 외부(Redis 등)에서 계산된 재고를 그대로 반영, 낙관적 락 사용자를 위해 버전도 증가
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = :stock, p.version = p.version + 1 WHERE p.id = :id")
+    int updateStock(@Param("id") Long id, @Param("stock") int stock);
+
+    // 조건부 차감: 재고가 충분할 때만 한 문장으로 차감, 영향받은 행 수(0 또는 1)로 성공 여부 판단
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.stock >= :quantity")
+    int decreaseStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity);
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.tetz.kb6_back.repository;
+
+import com.tetz.kb6_back.entity.ProductStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+
+    List<ProductStockShard> findByProductIdOrderByShardNo(Long productId);
+
+    // 재고가 충분한 조각 중 다른 트랜잭션이 잠그지 않은 것 하나를 잠금 (MySQL 8 SKIP LOCKED)
+    // 시작 조각(fromShardNo)은 호출자가 임의로 골라 스레드들이 같은 조각에 몰리지 않게 분산하고,
+    // (product_id, shard_no) 인덱스 순서로 읽어야 검사한 행만 잠김 (계산식 정렬은 filesort 로 모든 행을 잠금)
+    @Query(value = "SELECT * FROM product_stock_shards " +
+            "WHERE product_id = :productId AND shard_no >= :fromShardNo AND stock >= :quantity " +
+            "ORDER BY shard_no LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<ProductStockShard> lockAvailableShardFrom(@Param("productId") Long productId,
+                                                       @Param("quantity") int quantity,
+                                                       @Param("fromShardNo") int fromShardNo);
+
+    // lockAvailableShardFrom 에서 못 찾았을 때 앞쪽 조각으로 순환
+    @Query(value = "SELECT * FROM product_stock_shards " +
+            "WHERE product_id = :productId AND shard_no < :toShardNo AND stock >= :quantity " +
+            "ORDER BY shard_no LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<ProductStockShard> lockAvailableShardBefore(@Param("productId") Long productId,
+                                                         @Param("quantity") int quantity,
+                                                         @Param("toShardNo") int toShardNo);
+
+    // 잠금 없이 재고가 충분한 조각 번호만 조회 (엔티티를 영속성 컨텍스트에 올리지 않도록 스칼라로 조회)
+    @Query("SELECT s.shardNo FROM ProductStockShard s WHERE s.productId = :productId AND s.stock >= :quantity")
+    List<Integer> findShardNosWithStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // 조각 하나만 잠금 (잠겨 있으면 풀릴 때까지 대기)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductStockShard s WHERE s.productId = :productId AND s.shardNo = :shardNo")
+    Optional<ProductStockShard> findShardForUpdate(@Param("productId") Long productId, @Param("shardNo") int shardNo);
+
+    // 대체 경로: 상품의 모든 조각을 shard_no 순서로 잠금
+    // 순서가 고정되어 있으므로 다른 조각 잠금을 들지 않은 새 트랜잭션에서 호출해야 교착 상태가 생기지 않음
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductStockShard s WHERE s.productId = :productId ORDER BY s.shardNo")
+    List<ProductStockShard> findByProductIdForUpdate(@Param("productId") Long productId);
+
+    @Query("SELECT COALESCE(SUM(s.stock), 0) FROM ProductStockShard s WHERE s.productId = :productId")
+    long sumStock(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM ProductStockShard s WHERE s.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,26 @@
+package com.tetz.kb6_back.repository;
+
+import com.tetz.kb6_back.entity.UserChangeOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+public interface UserChangeOffsetRepository extends JpaRepository<UserChangeOffset, String> {
+
+    // 더 최신 변경일 때만 전진 (행이 없으면 생성), 행 락을 잡으므로 같은 사용자를 반영하는 워커끼리 직렬화됨
+    @Modifying
+    @Query(value = "INSERT INTO user_change_offsets (user_id, last_change_id) VALUES (:userId, :changeId) " +
+            "ON DUPLICATE KEY UPDATE last_change_id = GREATEST(last_change_id, VALUES(last_change_id))", nativeQuery = true)
+    int advance(@Param("userId") String userId, @Param("changeId") String changeId);
+
+    // 전진 후 현재 값을 잠금 읽기로 조회 (스냅샷이 아니라 다른 워커가 커밋한 최신 값을 봄)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM UserChangeOffset o WHERE o.userId IN :userIds")
+    List<UserChangeOffset> findAllForUpdate(@Param("userIds") Collection<String> userIds);
+}
@@ -1,7 +1,35 @@
 package com.tetz.kb6_back.repository;
 
 import com.tetz.kb6_back.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface UserSQLRepository extends JpaRepository<User, String> {
+
+    // 키셋 페이지네이션: WHERE id > :lastId ORDER BY id LIMIT :limit (PK 인덱스로 OFFSET 없이 바로 이어서 조회)
+    List<User> findByIdGreaterThanOrderByIdAsc(String lastId, Limit limit);
+
+    // MySQL Connector/J 는 fetchSize 가 Integer.MIN_VALUE 일 때만 결과를 한 행씩 스트리밍
+    // (그 외에는 전체 결과를 메모리에 올림), 트랜잭션 안에서 사용하고 반드시 닫아야 함
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAllOrderById();
+
+    // 멱등 upsert: 같은 변경을 여러 번 반영해도 결과가 같음 (write-behind 재처리용)
+    @Modifying
+    @Query(value = "INSERT INTO users (id, name, age) VALUES (:id, :name, :age) " +
+            "ON DUPLICATE KEY UPDATE name = VALUES(name), age = VALUES(age)", nativeQuery = true)
+    int upsert(@Param("id") String id, @Param("name") String name, @Param("age") int age);
 }
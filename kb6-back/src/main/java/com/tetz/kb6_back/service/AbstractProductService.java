@@ -1,6 +1,13 @@
 package com.tetz.kb6_back.service;
 
+import com.tetz.kb6_back.dto.LockTestResult;
+
 public interface AbstractProductService {
     void decreaseStock(Long productId, int quantity);
-    long performanceTest(Long productId, int quantity, int threadCount);
+
+    LockTestResult runPerformanceTest(Long productId, int quantity, int threadCount);
+
+    default long performanceTest(Long productId, int quantity, int threadCount) {
+        return runPerformanceTest(productId, quantity, threadCount).getDurationMillis();
+    }
 }
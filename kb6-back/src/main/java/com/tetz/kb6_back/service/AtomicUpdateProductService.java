@@ -0,0 +1,42 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.LockTestResult;
+import com.tetz.kb6_back.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 엔티티를 읽지 않고 조건부 UPDATE 한 문장으로 차감 (명시적 락, 더티 체킹 없음)
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AtomicUpdateProductService implements AbstractProductService {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LockTestRunner lockTestRunner;
+    private final StockMetrics stockMetrics;
+
+    @Override
+    public void decreaseStock(Long productId, int quantity) {
+        stockMetrics.record("atomic_update", () -> {
+            Integer updated = transactionTemplate.execute(status ->
+                    productRepository.decreaseStockIfAvailable(productId, quantity));
+
+            // 영향받은 행이 없을 때만 원인 확인을 위해 한 번 더 조회
+            if (updated == null || updated == 0) {
+                if (!productRepository.existsById(productId)) {
+                    throw new RuntimeException("Product not found");
+                }
+                throw new RuntimeException("Not enough stock");
+            }
+        });
+    }
+
+    @Override
+    public LockTestResult runPerformanceTest(Long productId, int quantity, int threadCount) {
+        return lockTestRunner.run("Atomic update", threadCount,
+                threadNum -> decreaseStock(productId, quantity));
+    }
+}
@@ -0,0 +1,188 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.LockTestResult;
+import com.tetz.kb6_back.entity.Product;
+import com.tetz.kb6_back.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 같은 상품에 대한 동시 차감 요청을 모아서 한 번의 조건부 UPDATE 로 처리 (request coalescing)
+// - windowMs 마다, 또는 대기 요청이 maxBatchSize 에 도달하면 즉시 반영
+// - 각 호출자는 자신의 요청 결과(성공/재고 부족)를 개별적으로 받음
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CoalescingProductService implements AbstractProductService {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LockTestRunner lockTestRunner;
+    private final StockMetrics stockMetrics;
+
+    @Value("${stock-coalescing.window-ms:5}")
+    private long windowMillis;
+
+    @Value("${stock-coalescing.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${stock-coalescing.timeout-ms:10000}")
+    private long timeoutMillis;
+
+    private final ConcurrentHashMap<Long, ProductQueue> queues = new ConcurrentHashMap<>();
+
+    // 반영은 단일 스레드에서만 수행하므로 상품별 배치 처리 순서가 보장됨
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void init() {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "stock-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushAll, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+    }
+
+    @Override
+    public void decreaseStock(Long productId, int quantity) {
+        stockMetrics.record("coalescing", () -> awaitCoalesced(productId, quantity));
+    }
+
+    private void awaitCoalesced(Long productId, int quantity) {
+        PendingDecrement pending = new PendingDecrement(quantity, new CompletableFuture<>(), new AtomicBoolean());
+
+        ProductQueue queue = queues.computeIfAbsent(productId, id -> new ProductQueue());
+        queue.requests.add(pending);
+        if (queue.size.incrementAndGet() >= maxBatchSize) {
+            flusher.execute(() -> flush(productId, queue));
+        }
+
+        try {
+            try {
+                pending.future().get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // 아직 배치에 들어가지 않았으면 취소해서 이후 반영되지 않도록 함
+                if (pending.claimed().compareAndSet(false, true)) {
+                    pending.future().cancel(false);
+                    throw new RuntimeException("Timed out waiting for coalesced stock update", e);
+                }
+                // 이미 반영 중인 배치에 들어갔으면 실제 결과를 보고해야 재고와 응답이 어긋나지 않음
+                pending.future().get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.claimed().compareAndSet(false, true)) {
+                pending.future().cancel(false);
+            }
+            throw new RuntimeException("Thread interrupted", e);
+        }
+    }
+
+    private void flushAll() {
+        queues.forEach(this::flush);
+    }
+
+    private void flush(Long productId, ProductQueue queue) {
+        List<PendingDecrement> batch = new ArrayList<>();
+        int polled = 0;
+        PendingDecrement pending;
+        while ((pending = queue.requests.poll()) != null) {
+            polled++;
+            // 호출자가 시간 초과로 취소한 요청은 건너뜀
+            if (pending.claimed().compareAndSet(false, true)) {
+                batch.add(pending);
+            }
+        }
+        queue.size.addAndGet(-polled);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            apply(productId, batch);
+        } catch (Exception e) {
+            log.error("Failed to apply coalesced stock update for product {}: {}", productId, e.getMessage());
+            batch.forEach(p -> p.future().completeExceptionally(e));
+        }
+    }
+
+    private void apply(Long productId, List<PendingDecrement> batch) {
+        List<PendingDecrement> candidates = batch;
+
+        while (!candidates.isEmpty()) {
+            int total = candidates.stream().mapToInt(PendingDecrement::quantity).sum();
+
+            // UPDATE products SET stock = stock - :total WHERE id = :id AND stock >= :total
+            Integer updated = transactionTemplate.execute(status ->
+                    productRepository.decreaseStockIfAvailable(productId, total));
+            if (updated != null && updated == 1) {
+                candidates.forEach(p -> p.future().complete(null));
+                return;
+            }
+
+            // 합계만큼의 재고가 없으면 현재 재고 기준으로 도착 순서대로 수용 가능한 요청만 다시 시도
+            Optional<Product> product = productRepository.findById(productId);
+            if (product.isEmpty()) {
+                RuntimeException notFound = new RuntimeException("Product not found");
+                candidates.forEach(p -> p.future().completeExceptionally(notFound));
+                return;
+            }
+
+            int remaining = product.get().getStock();
+            List<PendingDecrement> accepted = new ArrayList<>();
+            for (PendingDecrement candidate : candidates) {
+                if (candidate.quantity() <= remaining) {
+                    accepted.add(candidate);
+                    remaining -= candidate.quantity();
+                } else {
+                    candidate.future().completeExceptionally(new RuntimeException("Not enough stock"));
+                }
+            }
+            candidates = accepted;
+        }
+    }
+
+    @Override
+    public LockTestResult runPerformanceTest(Long productId, int quantity, int threadCount) {
+        return lockTestRunner.run("Coalescing", threadCount,
+                threadNum -> decreaseStock(productId, quantity));
+    }
+
+    // claimed: 배치에 넣는 flusher 와 시간 초과로 취소하는 호출자 중 먼저 차지한 쪽만 처리
+    private record PendingDecrement(int quantity, CompletableFuture<Void> future, AtomicBoolean claimed) {
+    }
+
+    private static class ProductQueue {
+        private final ConcurrentLinkedQueue<PendingDecrement> requests = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+    }
+}
@@ -0,0 +1,76 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.LockTestResult;
+import com.tetz.kb6_back.entity.Product;
+import com.tetz.kb6_back.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 상품별 Redis 분산 락으로 임계 구역을 보호, DB 커넥션은 짧은 쓰기 트랜잭션 동안만 점유
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DistributedLockProductService implements AbstractProductService {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LockTestRunner lockTestRunner;
+    private final StockMetrics stockMetrics;
+    private final RedisDistributedLock distributedLock;
+
+    @Value("${distributed-lock.wait-millis:10000}")
+    private long waitMillis;
+
+    @Value("${distributed-lock.lease-millis:30000}")
+    private long leaseMillis;
+
+    @Override
+    public void decreaseStock(Long productId, int quantity) {
+        stockMetrics.record("distributed_lock", () -> decreaseStockWithLock(productId, quantity));
+    }
+
+    private void decreaseStockWithLock(Long productId, int quantity) {
+        RedisDistributedLock.LockHandle lock;
+        try {
+            lock = distributedLock.tryLock("product:" + productId, waitMillis, leaseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Thread interrupted", e);
+        }
+
+        if (lock == null) {
+            throw new RuntimeException("Failed to acquire lock for product " + productId);
+        }
+
+        try {
+            // 락 대기 중에는 커넥션을 잡지 않고, 락을 얻은 뒤 짧은 트랜잭션에서만 읽고 씀
+            transactionTemplate.executeWithoutResult(status -> {
+                Product product = productRepository.findById(productId)
+                        .orElseThrow(() -> new RuntimeException("Product not found"));
+
+                // 임대가 만료된 뒤 늦게 도착한 이전 보유자의 쓰기를 거부
+                if (product.getFencingToken() != null && product.getFencingToken() >= lock.getFencingToken()) {
+                    throw new RuntimeException("Stale fencing token " + lock.getFencingToken());
+                }
+
+                if (product.getStock() < quantity) {
+                    throw new RuntimeException("Not enough stock");
+                }
+
+                product.setStock(product.getStock() - quantity);
+                product.setFencingToken(lock.getFencingToken());
+            });
+        } finally {
+            distributedLock.unlock(lock);
+        }
+    }
+
+    @Override
+    public LockTestResult runPerformanceTest(Long productId, int quantity, int threadCount) {
+        return lockTestRunner.run("Distributed lock", threadCount,
+                threadNum -> decreaseStock(productId, quantity));
+    }
+}
@@ -0,0 +1,92 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.LatencyReport;
+import com.tetz.kb6_back.dto.UserDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 실제 HTTP 요청으로 MVC(/api/redis) 와 리액티브(/api/reactive/redis) 조회 엔드포인트를 같은 부하로 비교
+// 비동기 HttpClient 로 최대 concurrency 개의 요청을 동시에 유지 (클라이언트 쪽 스레드 수가 병목이 되지 않도록)
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HttpLoadTestService {
+    private final RedisService redisService;
+    private final PerformanceTestService performanceTestService;
+    private final UserNearCache nearCache;
+    private final Environment environment;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public Map<String, Object> compareRedisEndpoints(int userCount, int requestCount, int concurrency) {
+        List<UserDto> users = performanceTestService.generateTestUsers(userCount);
+        redisService.saveUsers(users);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("requestCount", requestCount);
+        results.put("concurrency", concurrency);
+        // 리액티브 조회는 항상 Redis 왕복이므로 "mvc" 도 near-cache 를 거치지 않는 경로로 비교하고,
+        // near-cache 가 켜져 있으면 기본 MVC 조회를 "mvc+L1" 로 따로 측정
+        results.put("mvc", runGetLoad("/api/redis/direct/", users, requestCount, concurrency));
+        results.put("reactive", runGetLoad("/api/reactive/redis/", users, requestCount, concurrency));
+        if (nearCache.isEnabled()) {
+            results.put("mvc+L1", runGetLoad("/api/redis/", users, requestCount, concurrency));
+        }
+        return results;
+    }
+
+    private Map<String, Object> runGetLoad(String path, List<UserDto> users, int requestCount, int concurrency) {
+        String baseUrl = "http://localhost:" + environment.getProperty("local.server.port",
+                environment.getProperty("server.port", "8080")) + path;
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        LatencyRecorder latencyRecorder = new LatencyRecorder();
+        AtomicInteger errorCount = new AtomicInteger();
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[requestCount];
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < requestCount; i++) {
+            inFlight.acquireUninterruptibly();
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + users.get(i % users.size()).getId()))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            long requestStart = System.nanoTime();
+            requests[i] = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencyRecorder.record(System.nanoTime() - requestStart);
+                        if (error != null || response.statusCode() != 200) {
+                            errorCount.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(requests).exceptionally(e -> null).join();
+
+        LatencyReport latency = latencyRecorder.toReport(System.nanoTime() - startNanos);
+        log.info("{} load test completed. Throughput: {}/s, p99: {}us, Errors: {}",
+                path, latency.getThroughputPerSec(), latency.getP99Micros(), errorCount.get());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("latency", latency);
+        result.put("errorCount", errorCount.get());
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.LatencyReport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+// 작업 하나하나의 지연 시간을 HdrHistogram 에 기록 (여러 스레드에서 동시에 기록 가능)
+public class LatencyRecorder {
+
+    // 유효 숫자 3자리, 범위는 기록되는 값에 맞춰 자동 확장
+    private final Histogram histogram = new ConcurrentHistogram(3);
+
+    public void record(long elapsedNanos) {
+        histogram.recordValue(elapsedNanos);
+    }
+
+    public void time(Runnable operation) {
+        long startTime = System.nanoTime();
+        try {
+            operation.run();
+        } finally {
+            record(System.nanoTime() - startTime);
+        }
+    }
+
+    // elapsedNanos: 전체 실행 시간 (처리량 계산용)
+    public LatencyReport toReport(long elapsedNanos) {
+        long count = histogram.getTotalCount();
+        return LatencyReport.builder()
+                .count(count)
+                .totalMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .throughputPerSec(elapsedNanos == 0 ? 0 : count * 1_000_000_000.0 / elapsedNanos)
+                .meanMicros(histogram.getMean() / 1_000.0)
+                .p50Micros(percentileMicros(50.0))
+                .p90Micros(percentileMicros(90.0))
+                .p99Micros(percentileMicros(99.0))
+                .p999Micros(percentileMicros(99.9))
+                .maxMicros(histogram.getMaxValue() / 1_000.0)
+                .build();
+    }
+
+    private double percentileMicros(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000.0;
+    }
+}
@@ -0,0 +1,196 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.LockTestResult;
+import com.tetz.kb6_back.entity.InventoryLedgerEntry;
+import com.tetz.kb6_back.entity.Product;
+import com.tetz.kb6_back.repository.InventoryLedgerRepository;
+import com.tetz.kb6_back.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// 재고 차감을 products.stock UPDATE 대신 inventory_ledger INSERT 로 기록 (append-only 원장)
+// - 초과 판매 방지: Redis 예약 카운터(가용 재고)를 Lua 스크립트로 먼저 차감한 요청만 원장에 기록
+// - 가용 재고: products.stock(스냅샷) - 반영되지 않은 원장 합계
+// - 압축: 주기적으로 반영되지 않은 원장을 products.stock 에 합쳐서 반영하고 applied 로 표시
+//   다른 경로로 products.stock 이 줄어 원장이 스냅샷을 넘으면, 들어가는 만큼만 반영하고 나머지는 rejected 로 남긴 뒤
+//   예약 카운터를 DB 기준으로 다시 맞춤 (넘친 원장 때문에 압축이 계속 실패하지 않도록)
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerProductService implements AbstractProductService {
+
+    private static final String RESERVATION_KEY_PREFIX = "ledger:available:";
+    private static final long STOCK_NOT_LOADED = -1L;
+    private static final long NOT_ENOUGH_STOCK = -2L;
+
+    private final InventoryLedgerRepository ledgerRepository;
+    private final ProductRepository productRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisScript<Long> decreaseStockScript;
+    private final TransactionTemplate transactionTemplate;
+    private final LockTestRunner lockTestRunner;
+    private final StockMetrics stockMetrics;
+
+    @Value("${inventory-ledger.compaction-batch-size:1000}")
+    private int compactionBatchSize;
+
+    @Override
+    public void decreaseStock(Long productId, int quantity) {
+        stockMetrics.record("ledger", () -> {
+            long result = reserve(productId, quantity);
+
+            // 최초 요청이면 DB 가용 재고를 Redis 에 적재 후 재시도
+            if (result == STOCK_NOT_LOADED) {
+                loadReservation(productId, false);
+                result = reserve(productId, quantity);
+            }
+
+            if (result == NOT_ENOUGH_STOCK) {
+                throw new RuntimeException("Not enough stock");
+            }
+            // 재시도 후에도 카운터가 없으면 초과 판매 검사를 거치지 않았으므로 원장에 기록하지 않음
+            if (result < 0) {
+                throw new RuntimeException("Stock not loaded for product " + productId);
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        ledgerRepository.save(InventoryLedgerEntry.builder()
+                                .productId(productId)
+                                .quantity(quantity)
+                                .createdAt(LocalDateTime.now())
+                                .build()));
+            } catch (RuntimeException e) {
+                // 원장 기록에 실패하면 예약한 수량을 되돌림
+                stringRedisTemplate.opsForValue().increment(RESERVATION_KEY_PREFIX + productId, quantity);
+                throw e;
+            }
+        });
+    }
+
+    public long getAvailableStock(Long productId) {
+        return ledgerRepository.findAvailableStock(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+    }
+
+    // 반영되지 않은 원장이 있는 상품을 주기적으로 압축
+    @Scheduled(fixedDelayString = "${inventory-ledger.compaction-interval-ms:1000}")
+    public void compactLedger() {
+        for (Long productId : ledgerRepository.findProductIdsWithUnappliedEntries()) {
+            try {
+                compact(productId);
+            } catch (Exception e) {
+                log.error("Failed to compact ledger for product {}: {}", productId, e.getMessage());
+            }
+        }
+    }
+
+    // 반영되지 않은 원장을 모두 처리, 처리한(반영 + 거부) 항목 수 반환
+    public int compact(Long productId) {
+        int total = 0;
+        int rejected = 0;
+        BatchResult batch;
+        do {
+            batch = compactBatch(productId);
+            total += batch.processed();
+            rejected += batch.rejected();
+        } while (batch.processed() == compactionBatchSize);
+
+        if (rejected > 0) {
+            log.warn("Rejected {} ledger entries of product {} exceeding snapshot stock", rejected, productId);
+            // 카운터가 실제 가용 재고보다 크게 남아 있어서 초과분이 생긴 것이므로 DB 기준으로 다시 적재
+            loadReservation(productId, true);
+        }
+        return total;
+    }
+
+    // 상품 행을 먼저 잠가서 압축기끼리 같은 원장을 두 번 반영하지 않도록 함
+    // (잠금 읽기는 스냅샷을 만들지 않으므로, 잠금을 얻은 뒤의 조회는 앞선 압축 결과를 봄)
+    // 삭제/조건 UPDATE 대신 조회한 id 만 표시해서, 아직 커밋되지 않은 원장 INSERT 를 건드리지 않음
+    private BatchResult compactBatch(Long productId) {
+        BatchResult result = transactionTemplate.execute(status -> {
+            Product product = productRepository.findByIdWithPessimisticWriteLock(productId)
+                    .orElseThrow(() -> new RuntimeException("Product not found"));
+
+            List<InventoryLedgerEntry> entries = ledgerRepository.findByProductIdAndAppliedFalseOrderByIdAsc(
+                    productId, Limit.of(compactionBatchSize));
+            if (entries.isEmpty()) {
+                return new BatchResult(0, 0);
+            }
+
+            // 오래된 원장부터 스냅샷 재고에 들어가는 만큼만 반영하고, 넘치는 항목은 거부
+            int remaining = product.getStock();
+            int quantity = 0;
+            List<Long> appliedIds = new ArrayList<>();
+            List<Long> rejectedIds = new ArrayList<>();
+            for (InventoryLedgerEntry entry : entries) {
+                if (entry.getQuantity() <= remaining) {
+                    remaining -= entry.getQuantity();
+                    quantity += entry.getQuantity();
+                    appliedIds.add(entry.getId());
+                } else {
+                    rejectedIds.add(entry.getId());
+                }
+            }
+
+            if (quantity > 0 && productRepository.decreaseStockIfAvailable(productId, quantity) == 0) {
+                throw new RuntimeException("Ledger exceeds snapshot stock for product " + productId);
+            }
+            if (!appliedIds.isEmpty()) {
+                ledgerRepository.markApplied(appliedIds);
+            }
+            if (!rejectedIds.isEmpty()) {
+                ledgerRepository.markRejected(rejectedIds);
+            }
+            return new BatchResult(entries.size(), rejectedIds.size());
+        });
+        return result != null ? result : new BatchResult(0, 0);
+    }
+
+    @Override
+    public LockTestResult runPerformanceTest(Long productId, int quantity, int threadCount) {
+        // 밀린 원장을 먼저 반영하고, 다른 서비스가 바꿨을 수 있는 DB 재고로 예약 카운터를 다시 맞춤
+        compact(productId);
+        loadReservation(productId, true);
+
+        LockTestResult result = lockTestRunner.run("Ledger", threadCount,
+                threadNum -> decreaseStock(productId, quantity));
+
+        // 결과 비교를 위해 원장을 즉시 products.stock 에 반영
+        compact(productId);
+
+        return result;
+    }
+
+    private long reserve(Long productId, int quantity) {
+        Long result = stringRedisTemplate.execute(decreaseStockScript,
+                List.of(RESERVATION_KEY_PREFIX + productId), String.valueOf(quantity));
+        return result != null ? result : STOCK_NOT_LOADED;
+    }
+
+    // overwrite=false 이면 이미 적재된 카운터를 덮어쓰지 않음 (동시 최초 요청 대비 SETNX)
+    private void loadReservation(Long productId, boolean overwrite) {
+        String key = RESERVATION_KEY_PREFIX + productId;
+        String available = String.valueOf(getAvailableStock(productId));
+        if (overwrite) {
+            stringRedisTemplate.opsForValue().set(key, available);
+        } else {
+            stringRedisTemplate.opsForValue().setIfAbsent(key, available);
+        }
+    }
+
+    // 압축 한 번에 처리한 항목 수와 그중 거부한 항목 수
+    private record BatchResult(int processed, int rejected) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.LatencyReport;
+import com.tetz.kb6_back.dto.LockTestResult;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+// 재고 차감 동시성 테스트 공통 실행기
+// 공용 benchmarkExecutor 에서 threadCount 개의 작업을 동시에 실행하고,
+// 그동안 Hikari 풀을 샘플링해 커넥션 대기가 병목인지 함께 보고
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LockTestRunner {
+
+    private static final long POOL_SAMPLE_INTERVAL_MS = 5;
+
+    private final ExecutorService benchmarkExecutor;
+    private final DataSource dataSource;
+
+    @Value("${lock-test.virtual-threads:${spring.threads.virtual.enabled:false}}")
+    private boolean virtualThreads;
+
+    private final ScheduledExecutorService poolSampler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "pool-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        poolSampler.shutdownNow();
+    }
+
+    // task 는 스레드 번호를 받아 한 번의 요청을 수행, 예외를 던지면 실패로 집계
+    public LockTestResult run(String lockType, int threadCount, IntConsumer task) {
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        LatencyRecorder latencyRecorder = new LatencyRecorder();
+        AtomicInteger successCount = new AtomicInteger(0);
+        AtomicInteger failCount = new AtomicInteger(0);
+
+        AtomicInteger maxActive = new AtomicInteger(0);
+        AtomicInteger maxAwaiting = new AtomicInteger(0);
+        HikariPoolMXBean pool = hikariPool();
+        ScheduledFuture<?> sampling = pool == null ? null : poolSampler.scheduleAtFixedRate(() -> {
+            maxActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+            maxAwaiting.accumulateAndGet(pool.getThreadsAwaitingConnection(), Math::max);
+        }, 0, POOL_SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+
+        for (int i = 0; i < threadCount; i++) {
+            final int threadNum = i;
+            try {
+                benchmarkExecutor.submit(() -> {
+                    long taskStart = System.nanoTime();
+                    try {
+                        task.accept(threadNum);
+                        successCount.incrementAndGet();
+                    } catch (Exception e) {
+                        failCount.incrementAndGet();
+                        log.error("Error in {} thread: {}", lockType, e.getMessage());
+                    } finally {
+                        latencyRecorder.record(System.nanoTime() - taskStart);
+                        latch.countDown();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 제한된 대기열이 가득 찬 경우
+                failCount.incrementAndGet();
+                latch.countDown();
+            }
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long endTime = System.currentTimeMillis();
+        long duration = endTime - startTime;
+        LatencyReport latency = latencyRecorder.toReport(System.nanoTime() - startNanos);
+
+        if (sampling != null) {
+            sampling.cancel(false);
+        }
+
+        log.info("{} test completed. Duration: {}ms, Success: {}, Fail: {}, Max awaiting connection: {}",
+                lockType, duration, successCount.get(), failCount.get(), maxAwaiting.get());
+
+        return LockTestResult.builder()
+                .lockType(lockType)
+                .threadCount(threadCount)
+                .durationMillis(duration)
+                .successCount(successCount.get())
+                .failCount(failCount.get())
+                .throughputPerSec(duration == 0 ? 0 : successCount.get() * 1000.0 / duration)
+                .latency(latency)
+                .executorMode(virtualThreads ? "virtual" : "platform")
+                .maxPoolSize(maxPoolSize())
+                .maxActiveConnections(maxActive.get())
+                .maxThreadsAwaitingConnection(maxAwaiting.get())
+                .build();
+    }
+
+    private HikariPoolMXBean hikariPool() {
+        HikariDataSource hikari = hikariDataSource();
+        return hikari == null ? null : hikari.getHikariPoolMXBean();
+    }
+
+    private int maxPoolSize() {
+        HikariDataSource hikari = hikariDataSource();
+        return hikari == null ? 0 : hikari.getMaximumPoolSize();
+    }
+
+    private HikariDataSource hikariDataSource() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to unwrap Hikari data source: {}", e.getMessage());
+        }
+        return null;
+    }
+}
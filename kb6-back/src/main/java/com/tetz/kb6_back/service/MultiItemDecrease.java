@@ -0,0 +1,43 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.entity.Product;
+
+import java.util.List;
+import java.util.Map;
+
+// 여러 상품 차감의 공통 검증/적용: 모든 항목을 먼저 검증한 뒤에만 엔티티 재고를 변경
+// 변경된 엔티티는 flush 시 hibernate.jdbc.batch_size 설정에 따라 UPDATE 가 JDBC 배치 하나로 전송됨
+final class MultiItemDecrease {
+
+    private MultiItemDecrease() {
+    }
+
+    // 잠금/조회 전에 호출해서 잘못된 요청이 DB 를 건드리지 않도록 함
+    static void validate(Map<Long, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            if (productId == null) {
+                throw new IllegalArgumentException("Product id must not be null");
+            }
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive: product " + productId);
+            }
+        });
+    }
+
+    // validate 를 통과한 quantities 만 전달
+    static void apply(List<Product> products, Map<Long, Integer> quantities) {
+        if (products.size() != quantities.size()) {
+            throw new RuntimeException("Product not found");
+        }
+
+        for (Product product : products) {
+            if (product.getStock() < quantities.get(product.getId())) {
+                throw new RuntimeException("Not enough stock");
+            }
+        }
+
+        for (Product product : products) {
+            product.setStock(product.getStock() - quantities.get(product.getId()));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.LockTestResult;
+
+import java.util.List;
+import java.util.Map;
+
+// 여러 상품을 한 주문으로 차감할 수 있는 재고 서비스 (비관적/낙관적 락)
+public interface MultiItemProductService {
+    // 상품 id -> 수량, 하나라도 부족하면 전체를 차감하지 않음
+    void decreaseStocks(Map<Long, Integer> quantities);
+
+    // 주문마다 한 스레드에서 여러 상품 차감
+    LockTestResult runMultiItemPerformanceTest(List<Map<Long, Integer>> orders);
+}
@@ -1,118 +1,191 @@
 package com.tetz.kb6_back.service;
 
+import com.tetz.kb6_back.dto.LockTestResult;
 import com.tetz.kb6_back.entity.Product;
 import com.tetz.kb6_back.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class OptimisticLockProductService implements AbstractProductService {
+public class OptimisticLockProductService implements AbstractProductService, MultiItemProductService {
 
     private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate; // 시도마다 새 트랜잭션(REQUIRES_NEW)
+    private final LockTestRunner lockTestRunner;
+    private final StockMetrics stockMetrics;
 
-    // 중요: 트랜잭션 경계를 메서드 호출마다 명확하게 설정
-    @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void decreaseStock(Long productId, int quantity) {
-        boolean success = false;
-        int retryCount = 0;
-        final int MAX_RETRY = 5;
-
-        while (!success && retryCount < MAX_RETRY) {
-            try {
-                // 최신 상태 조회
-                Product product = productRepository.findById(productId)
-                        .orElseThrow(() -> new RuntimeException("Product not found"));
-
-                if (product.getStock() < quantity) {
-                    throw new RuntimeException("Not enough stock");
-                }
+    // 재시도 정책: 지수 백오프 + full jitter
+    @Value("${optimistic-retry.max-attempts:10}")
+    private int maxAttempts;
 
-                // 재고 감소
-                product.setStock(product.getStock() - quantity);
+    @Value("${optimistic-retry.base-delay-ms:10}")
+    private long baseDelayMillis;
 
-                // 즉시 저장 및 flush
-                productRepository.saveAndFlush(product);
-                success = true;
+    @Value("${optimistic-retry.max-delay-ms:500}")
+    private long maxDelayMillis;
 
-            } catch (ObjectOptimisticLockingFailureException e) {
-                retryCount++;
-                log.info("Optimistic lock exception occurred. Retry count: {}", retryCount);
+    @Value("${optimistic-retry.max-elapsed-ms:10000}")
+    private long maxElapsedMillis;
 
-                // 재시도 전 딜레이
-                try {
-                    // 단순한 고정 딜레이 사용
-                    Thread.sleep(100);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Thread interrupted", ie);
-                }
-            }
-        }
+    // 재시도 통계
+    private final AtomicLong callCount = new AtomicLong();
+    private final AtomicLong exhaustedCount = new AtomicLong();
+    private final AtomicLong attemptCount = new AtomicLong();
+    private final AtomicInteger maxAttemptsPerCall = new AtomicInteger();
+    private final AtomicLong wastedNanos = new AtomicLong();
 
-        if (!success) {
-            throw new RuntimeException("Failed to decrease stock after " + MAX_RETRY + " retries");
-        }
+    // 중요: 재시도 루프 자체는 트랜잭션 밖에 두고, 각 시도를 독립된 트랜잭션으로 실행
+    // (하나의 트랜잭션 안에서 재시도하면 영속성 컨텍스트가 계속 같은 오래된 엔티티를 돌려줌)
+    @Override
+    public void decreaseStock(Long productId, int quantity) {
+        stockMetrics.record("optimistic", () -> withRetry(() -> decreaseStockOnce(productId, quantity)));
     }
 
+    // 버전 충돌이 나면 전체 주문을 새 트랜잭션에서 다시 시도
+    // (모든 상품의 UPDATE ... WHERE version = ? 가 한 배치로 전송되고 하나라도 실패하면 전체 롤백)
     @Override
-    public long performanceTest(Long productId, int quantity, int threadCount) {
-        // 트랜잭션 경계 밖에서 실행
-        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
-        CountDownLatch latch = new CountDownLatch(threadCount);
-        AtomicInteger successCount = new AtomicInteger(0);
-        AtomicInteger failCount = new AtomicInteger(0);
+    public void decreaseStocks(Map<Long, Integer> quantities) {
+        MultiItemDecrease.validate(quantities);
+        if (quantities.isEmpty()) {
+            return;
+        }
 
-        long startTime = System.currentTimeMillis();
+        stockMetrics.record("optimistic_multi", () -> withRetry(() -> {
+            List<Product> products = productRepository.findAllById(quantities.keySet());
+            MultiItemDecrease.apply(products, quantities);
+            productRepository.saveAllAndFlush(products);
+        }));
+    }
+
+    private void withRetry(Runnable attemptTask) {
+        long startNanos = System.nanoTime();
+        long wasted = 0;
+        int attempt = 0;
+
+        try {
+            while (true) {
+                attempt++;
+                long attemptStart = System.nanoTime();
 
-        // 스레드 수를 제한하여 실행 - 모든 스레드를 동시에 실행하지 않음
-        for (int i = 0; i < threadCount; i++) {
-            final int threadNum = i;
-            executor.submit(() -> {
                 try {
-                    // 각 스레드 약간 지연 시작
-                    if (threadNum % 10 == 0 && threadNum > 0) {
-                        Thread.sleep(50);
+                    transactionTemplate.executeWithoutResult(status -> attemptTask.run());
+                    return;
+                } catch (OptimisticLockingFailureException e) {
+                    wasted += System.nanoTime() - attemptStart;
+
+                    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                    if (attempt >= maxAttempts || elapsedMillis >= maxElapsedMillis) {
+                        exhaustedCount.incrementAndGet();
+                        throw new RuntimeException("Failed to decrease stock after " + attempt + " attempts", e);
                     }
 
-                    // 각 스레드는 독립적인 트랜잭션으로 실행
-                    decreaseStock(productId, quantity);
-                    successCount.incrementAndGet();
-                } catch (Exception e) {
-                    failCount.incrementAndGet();
-                    log.error("Error in optimistic lock thread: {}", e.getMessage());
-                } finally {
-                    latch.countDown();
+                    stockMetrics.recordOptimisticRetry();
+                    long delay = Math.min(backoffMillis(attempt), maxElapsedMillis - elapsedMillis);
+                    log.debug("Optimistic lock conflict. Attempt: {}, backoff: {}ms", attempt, delay);
+
+                    long sleepStart = System.nanoTime();
+                    sleep(delay);
+                    wasted += System.nanoTime() - sleepStart;
                 }
-            });
+            }
+        } finally {
+            recordCall(attempt, wasted);
+        }
+    }
+
+    private void decreaseStockOnce(Long productId, int quantity) {
+        // 최신 상태 조회
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+
+        if (product.getStock() < quantity) {
+            throw new RuntimeException("Not enough stock");
         }
 
+        // 재고 감소
+        product.setStock(product.getStock() - quantity);
+
+        // 즉시 저장 및 flush
+        productRepository.saveAndFlush(product);
+    }
+
+    // full jitter: [0, min(maxDelay, base * 2^(attempt-1))] 사이의 임의 시간
+    private long backoffMillis(int attempt) {
+        long exponential = baseDelayMillis << Math.min(attempt - 1, 30);
+        long cap = Math.min(maxDelayMillis, exponential < 0 ? maxDelayMillis : exponential);
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private void sleep(long millis) {
         try {
-            latch.await();
-        } catch (InterruptedException e) {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
             Thread.currentThread().interrupt();
+            throw new RuntimeException("Thread interrupted", ie);
         }
+    }
 
-        long endTime = System.currentTimeMillis();
-        long duration = endTime - startTime;
+    private void recordCall(int attempts, long wasted) {
+        callCount.incrementAndGet();
+        attemptCount.addAndGet(attempts);
+        maxAttemptsPerCall.accumulateAndGet(attempts, Math::max);
+        wastedNanos.addAndGet(wasted);
+    }
 
-        executor.shutdown();
+    public Map<String, Object> getRetryMetrics() {
+        long calls = callCount.get();
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("calls", calls);
+        metrics.put("exhausted", exhaustedCount.get());
+        metrics.put("attempts", attemptCount.get());
+        metrics.put("retries", attemptCount.get() - calls);
+        metrics.put("maxAttemptsPerCall", maxAttemptsPerCall.get());
+        metrics.put("avgAttemptsPerCall", calls == 0 ? 0.0 : (double) attemptCount.get() / calls);
+        metrics.put("wastedMillis", TimeUnit.NANOSECONDS.toMillis(wastedNanos.get()));
+        metrics.put("avgWastedMillisPerCall", calls == 0 ? 0.0 : wastedNanos.get() / 1_000_000.0 / calls);
+        return metrics;
+    }
+
+    public void resetRetryMetrics() {
+        callCount.set(0);
+        exhaustedCount.set(0);
+        attemptCount.set(0);
+        maxAttemptsPerCall.set(0);
+        wastedNanos.set(0);
+    }
 
-        log.info("Optimistic lock test completed. Duration: {}ms, Success: {}, Fail: {}",
-                duration, successCount.get(), failCount.get());
+    @Override
+    public LockTestResult runMultiItemPerformanceTest(List<Map<Long, Integer>> orders) {
+        return lockTestRunner.run("Optimistic lock (multi-item)", orders.size(),
+                threadNum -> decreaseStocks(orders.get(threadNum)));
+    }
+
+    @Override
+    public LockTestResult runPerformanceTest(Long productId, int quantity, int threadCount) {
+        // 트랜잭션 경계 밖에서 실행
+        return lockTestRunner.run("Optimistic lock", threadCount, threadNum -> {
+            // 각 스레드 약간 지연 시작
+            if (threadNum % 10 == 0 && threadNum > 0) {
+                sleep(50);
+            }
 
-        return duration;
+            // 각 스레드는 독립적인 트랜잭션으로 실행
+            decreaseStock(productId, quantity);
+        });
     }
 }
\ No newline at end of file
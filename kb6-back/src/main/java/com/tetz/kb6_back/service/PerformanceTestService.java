@@ -1,21 +1,38 @@
 package com.tetz.kb6_back.service;
 
+import com.tetz.kb6_back.dto.LatencyReport;
+import com.tetz.kb6_back.dto.LoadTestRequest;
+import com.tetz.kb6_back.dto.LoadTestResult;
 import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.dto.UserPageDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PerformanceTestService {
     private final RedisService redisService;
+    private final UserNearCache nearCache;
     private final UserSQLService userService;
+    private final ExecutorService benchmarkExecutor;
+
+    private static final int FIND_ALL_PAGE_SIZE = 1000;
 
     // 테스트 데이터 생성
     public List<UserDto> generateTestUsers(int count) {
@@ -29,11 +46,19 @@ public class PerformanceTestService {
 
     // Redis에 데이터 저장 성능 테스트
     public long testRedisSave(List<UserDto> users) {
+        return measureRedisSave(users).getTotalMillis();
+    }
+
+    // 건별 지연 시간 분포 포함
+    public LatencyReport measureRedisSave(List<UserDto> users) {
+        return measureEach(users, redisService::saveUser);
+    }
+
+    // Redis에 데이터 대량 저장 성능 테스트 (MSET 배치)
+    public long testRedisBatchSave(List<UserDto> users) {
         long startTime = System.nanoTime();
 
-        for (UserDto user : users) {
-            redisService.saveUser(user);
-        }
+        redisService.saveUsers(users);
 
         long endTime = System.nanoTime();
         return TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
@@ -41,11 +66,19 @@ public class PerformanceTestService {
 
     // MySQL에 데이터 저장 성능 테스트
     public long testMySQLSave(List<UserDto> users) {
+        return measureMySQLSave(users).getTotalMillis();
+    }
+
+    public LatencyReport measureMySQLSave(List<UserDto> users) {
+        return measureEach(users, userService::saveUser);
+    }
+
+    // MySQL에 데이터 대량 저장 성능 테스트 (JDBC 배치 INSERT)
+    // 신규 id 만 INSERT 하므로 다른 테스트에서 이미 저장한 users 를 넘기면 안 됨
+    public long testMySQLBatchSave(List<UserDto> users) {
         long startTime = System.nanoTime();
 
-        for (UserDto user : users) {
-            userService.saveUser(user);
-        }
+        userService.saveUsers(users);
 
         long endTime = System.nanoTime();
         return TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
@@ -53,53 +86,60 @@ public class PerformanceTestService {
 
     // Redis에서 데이터 조회 성능 테스트
     public long testRedisRead(List<UserDto> users) {
+        return measureRedisRead(users).getTotalMillis();
+    }
+
+    public LatencyReport measureRedisRead(List<UserDto> users) {
         // 먼저 데이터 저장
         for (UserDto user : users) {
             redisService.saveUser(user);
         }
 
-        long startTime = System.nanoTime();
-
-        for (UserDto user : users) {
-            redisService.getUser(user.getId());
-        }
-
-        long endTime = System.nanoTime();
-        return TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
+        return measureEach(users, user -> redisService.getUser(user.getId()));
     }
 
     // MySQL에서 데이터 조회 성능 테스트
     public long testMySQLRead(List<UserDto> users) {
+        return measureMySQLRead(users).getTotalMillis();
+    }
+
+    public LatencyReport measureMySQLRead(List<UserDto> users) {
         // 먼저 데이터 저장
         for (UserDto user : users) {
             userService.saveUser(user);
         }
 
+        return measureEach(users, user -> userService.getUser(user.getId()));
+    }
+
+    // 벌크 작업 테스트
+    public long testRedisBulkRead(int count) {
+        List<UserDto> users = generateTestUsers(count);
+
+        // 먼저 데이터 저장 (측정 대상이 아니므로 배치로 적재)
+        redisService.saveUsers(users);
+
         long startTime = System.nanoTime();
 
+        // 여기서는 단순 조회만 테스트
         for (UserDto user : users) {
-            userService.getUser(user.getId());
+            redisService.getUser(user.getId());
         }
 
         long endTime = System.nanoTime();
         return TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
     }
 
-    // 벌크 작업 테스트
-    public long testRedisBulkRead(int count) {
+    // MGET 배치 조회 테스트
+    public long testRedisBatchRead(int count) {
         List<UserDto> users = generateTestUsers(count);
+        redisService.saveUsers(users);
 
-        // 먼저 데이터 저장
-        for (UserDto user : users) {
-            redisService.saveUser(user);
-        }
+        List<String> userIds = users.stream().map(UserDto::getId).toList();
 
         long startTime = System.nanoTime();
 
-        // 여기서는 단순 조회만 테스트
-        for (UserDto user : users) {
-            redisService.getUser(user.getId());
-        }
+        redisService.getUsers(userIds);
 
         long endTime = System.nanoTime();
         return TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
@@ -125,7 +165,8 @@ public class PerformanceTestService {
     }
 
     // MySQL의 전체 조회 성능 테스트
-    public long testMySQLFindAll(int count) {
+    // findAll(전체 목록) / 키셋 페이지네이션 / 스트리밍 세 가지 방식으로 테이블 전체를 읽어서 비교
+    public Map<String, Long> testMySQLFindAll(int count) {
         List<UserDto> users = generateTestUsers(count);
 
         // 먼저 데이터 저장
@@ -133,12 +174,170 @@ public class PerformanceTestService {
             userService.saveUser(user);
         }
 
+        Map<String, Long> results = new LinkedHashMap<>();
+
+        long startTime = System.nanoTime();
+        int findAllRows = userService.getAllUsers().size();
+        results.put("findAll", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+
+        startTime = System.nanoTime();
+        long keysetRows = 0;
+        String cursor = null;
+        UserPageDto page;
+        do {
+            page = userService.getUsersPage(cursor, FIND_ALL_PAGE_SIZE);
+            keysetRows += page.getUsers().size();
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+        results.put("keyset", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+
+        startTime = System.nanoTime();
+        long streamRows = userService.streamAllUsers(user -> { });
+        results.put("stream", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+
+        results.put("rows", (long) findAllRows);
+        log.info("MySQL 전체 조회 행 수 - findAll: {}, keyset: {}, stream: {}", findAllRows, keysetRows, streamRows);
+        return results;
+    }
+
+    // 저장 방식(STRING 키 / HASH 버킷)별 Redis 메모리 사용량 비교
+    // INFO memory 의 used_memory 증가분으로 측정하므로 다른 작업이 없는 Redis 에서 실행해야 정확함
+    public Map<String, Object> testRedisMemoryUsage(int count) {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("dataCount", count);
+
+        for (RedisService.StorageLayout layout : RedisService.StorageLayout.values()) {
+            List<UserDto> users = generateTestUsers(count);
+            List<String> userIds = users.stream().map(UserDto::getId).toList();
+
+            long before = redisService.getUsedMemory();
+            redisService.saveUsers(users, layout);
+            long after = redisService.getUsedMemory();
+            redisService.deleteUsers(userIds, layout);
+
+            long usedBytes = after - before;
+            Map<String, Object> layoutResult = new LinkedHashMap<>();
+            layoutResult.put("usedBytes", usedBytes);
+            layoutResult.put("bytesPerUser", count == 0 ? 0.0 : (double) usedBytes / count);
+            results.put(layout.name().toLowerCase(), layoutResult);
+
+            log.info("Redis {} 저장 메모리: {} bytes ({} bytes/user)", layout, usedBytes,
+                    count == 0 ? 0 : usedBytes / count);
+        }
+        return results;
+    }
+
+    // 동시 부하 테스트: concurrency 개의 클라이언트가 durationSeconds 동안 조회/저장을 readRatio 비율로 섞어서 반복
+    // 저장소별로 차례대로 실행하며, 같은 사용자 집합을 무작위로 접근
+    public Map<String, LoadTestResult> runLoadTest(LoadTestRequest request) {
+        if (request.getConcurrency() < 1 || request.getDurationSeconds() < 1 || request.getUserCount() < 1
+                || request.getRampUpSeconds() < 0 || request.getRampUpSeconds() > request.getDurationSeconds()
+                || request.getReadRatio() < 0 || request.getReadRatio() > 1) {
+            throw new IllegalArgumentException("Invalid load test request: " + request);
+        }
+        // 플랫폼 스레드 풀보다 클라이언트가 많으면 일부가 대기열에서 늦게 시작되어 동시성이 왜곡됨
+        if (benchmarkExecutor instanceof ThreadPoolExecutor pool && request.getConcurrency() > pool.getMaximumPoolSize()) {
+            throw new IllegalArgumentException("Concurrency " + request.getConcurrency()
+                    + " exceeds benchmark pool size " + pool.getMaximumPoolSize());
+        }
+
+        List<UserDto> users = generateTestUsers(request.getUserCount());
+        redisService.saveUsers(users);
+        userService.saveUsers(users);
+
+        Map<String, LoadTestResult> results = new LinkedHashMap<>();
+        // "redis" 는 near-cache 를 거치지 않은 Redis 왕복, near-cache 가 켜져 있으면 "redis+L1" 로 따로 측정
+        results.put("redis", runLoad("redis", request, users, redisService::getUserFromRedis, redisService::saveUser));
+        if (nearCache.isEnabled()) {
+            results.put("redis+L1", runLoad("redis+L1", request, users, redisService::getUser, redisService::saveUser));
+        }
+        results.put("mysql", runLoad("mysql", request, users, userService::getUser, userService::saveUser));
+        return results;
+    }
+
+    private LoadTestResult runLoad(String store, LoadTestRequest request, List<UserDto> users,
+                                   Consumer<String> read, Consumer<UserDto> write) {
+        int concurrency = request.getConcurrency();
+        LatencyRecorder readLatency = new LatencyRecorder();
+        LatencyRecorder writeLatency = new LatencyRecorder();
+        AtomicLong errorCount = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + TimeUnit.SECONDS.toNanos(request.getDurationSeconds());
+        long rampUpStepNanos = TimeUnit.SECONDS.toNanos(request.getRampUpSeconds()) / concurrency;
+
+        for (int i = 0; i < concurrency; i++) {
+            long clientStart = startNanos + rampUpStepNanos * i;
+            benchmarkExecutor.execute(() -> {
+                try {
+                    long wait;
+                    while ((wait = clientStart - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < endNanos) {
+                        UserDto user = users.get(random.nextInt(users.size()));
+                        boolean isRead = random.nextDouble() < request.getReadRatio();
+
+                        long opStart = System.nanoTime();
+                        try {
+                            if (isRead) {
+                                read.accept(user.getId());
+                            } else {
+                                write.accept(new UserDto(user.getId(), user.getName(), 20 + random.nextInt(40)));
+                            }
+                        } catch (Exception e) {
+                            errorCount.incrementAndGet();
+                        }
+                        (isRead ? readLatency : writeLatency).record(System.nanoTime() - opStart);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        LatencyReport readReport = readLatency.toReport(elapsedNanos);
+        LatencyReport writeReport = writeLatency.toReport(elapsedNanos);
+        long operations = readReport.getCount() + writeReport.getCount();
+
+        log.info("{} 부하 테스트 완료 - 동시성: {}, 처리량: {}/s, 조회 p99: {}us, 저장 p99: {}us, 오류: {}",
+                store, concurrency, operations * 1_000_000_000.0 / elapsedNanos,
+                readReport.getP99Micros(), writeReport.getP99Micros(), errorCount.get());
+
+        return LoadTestResult.builder()
+                .store(store)
+                .concurrency(concurrency)
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .operationCount(operations)
+                .errorCount(errorCount.get())
+                .throughputPerSec(operations * 1_000_000_000.0 / elapsedNanos)
+                .read(readReport)
+                .write(writeReport)
+                .build();
+    }
+
+    // 작업 하나하나의 지연 시간을 기록하면서 순차 실행
+    private <T> LatencyReport measureEach(List<T> items, Consumer<T> operation) {
+        LatencyRecorder recorder = new LatencyRecorder();
+
         long startTime = System.nanoTime();
 
-        userService.getAllUsers();
+        for (T item : items) {
+            recorder.time(() -> operation.accept(item));
+        }
 
         long endTime = System.nanoTime();
-        return TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
+        return recorder.toReport(endTime - startTime);
     }
 
     // 통합 테스트 실행 및 결과 출력
@@ -155,6 +354,9 @@ public class PerformanceTestService {
         log.info("MySQL 저장 시간: {} ms", mysqlSaveTime);
         log.info("저장 속도 비율: MySQL/Redis = {}", (double)mysqlSaveTime / redisSaveTime);
 
+        long mysqlBatchSaveTime = testMySQLBatchSave(generateTestUsers(dataCount));
+        log.info("MySQL 배치 저장 시간: {} ms (개별 저장 {} ms)", mysqlBatchSaveTime, mysqlSaveTime);
+
         // 조회 성능 테스트
         long redisReadTime = testRedisRead(testUsers);
         long mysqlReadTime = testMySQLRead(testUsers);
@@ -172,10 +374,18 @@ public class PerformanceTestService {
         log.info("MySQL 대량 조회 시간: {} ms", mysqlBulkTime);
         log.info("대량 조회 속도 비율: MySQL/Redis = {}", (double)mysqlBulkTime / redisBulkTime);
 
+        // Redis 배치(MGET) 조회 테스트
+        long redisBatchTime = testRedisBatchRead(dataCount);
+        log.info("Redis 배치 조회 시간: {} ms (개별 조회 {} ms)", redisBatchTime, redisBulkTime);
+
+        // Redis 저장 방식별 메모리 사용량
+        testRedisMemoryUsage(dataCount);
+
         // MySQL 전체 조회 테스트
         log.info("MySQL 전체 조회 테스트 시작...");
-        long mysqlFindAllTime = testMySQLFindAll(dataCount);
-        log.info("MySQL 전체 조회 시간: {} ms", mysqlFindAllTime);
+        Map<String, Long> mysqlFindAllTimes = testMySQLFindAll(dataCount);
+        log.info("MySQL 전체 조회 시간 - findAll: {} ms, keyset: {} ms, stream: {} ms",
+                mysqlFindAllTimes.get("findAll"), mysqlFindAllTimes.get("keyset"), mysqlFindAllTimes.get("stream"));
 
         log.info("테스트 완료!");
     }
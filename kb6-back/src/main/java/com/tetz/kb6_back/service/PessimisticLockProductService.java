@@ -1,7 +1,10 @@
 package com.tetz.kb6_back.service;
 
+import com.tetz.kb6_back.dto.LockTestResult;
 import com.tetz.kb6_back.entity.Product;
 import com.tetz.kb6_back.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -9,81 +12,74 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class PessimisticLockProductService implements AbstractProductService {
+public class PessimisticLockProductService implements AbstractProductService, MultiItemProductService {
 
     private final ProductRepository productRepository;
     private final TransactionTemplate transactionTemplate; // 추가: 프로그래밍 방식 트랜잭션 관리
+    private final LockTestRunner lockTestRunner;
+    private final StockMetrics stockMetrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void decreaseStock(Long productId, int quantity) {
-        // 비관적 락을 사용하여 상품 조회
-        Product product = productRepository.findByIdWithPessimisticWriteLock(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-
-        if (product.getStock() < quantity) {
-            throw new RuntimeException("Not enough stock");
-        }
-
-        product.setStock(product.getStock() - quantity);
-        productRepository.save(product);
+        stockMetrics.record("pessimistic", () -> {
+            // 비관적 락을 사용하여 상품 조회
+            Product product = productRepository.findByIdWithPessimisticWriteLock(productId)
+                    .orElseThrow(() -> new RuntimeException("Product not found"));
+
+            if (product.getStock() < quantity) {
+                throw new RuntimeException("Not enough stock");
+            }
+
+            product.setStock(product.getStock() - quantity);
+            productRepository.save(product);
+        });
     }
 
     @Override
-    public long performanceTest(Long productId, int quantity, int threadCount) {
-        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
-        CountDownLatch latch = new CountDownLatch(threadCount);
-        AtomicInteger successCount = new AtomicInteger(0);
-        AtomicInteger failCount = new AtomicInteger(0);
-
-        long startTime = System.currentTimeMillis();
-
-        for (int i = 0; i < threadCount; i++) {
-            executor.submit(() -> {
-                try {
-                    // 프로그래밍 방식으로 트랜잭션을 시작하여 각 스레드가 명시적인 트랜잭션 내에서 실행되도록 함
-                    transactionTemplate.execute(status -> {
-                        try {
-                            decreaseStock(productId, quantity);
-                            return true;
-                        } catch (Exception e) {
-                            status.setRollbackOnly();
-                            throw e;
-                        }
-                    });
-
-                    successCount.incrementAndGet();
-                } catch (Exception e) {
-                    failCount.incrementAndGet();
-                    log.error("Error in pessimistic lock thread: {}", e.getMessage());
-                } finally {
-                    latch.countDown();
-                }
-            });
-        }
-
-        try {
-            latch.await();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void decreaseStocks(Map<Long, Integer> quantities) {
+        MultiItemDecrease.validate(quantities);
+        if (quantities.isEmpty()) {
+            return;
         }
 
-        long endTime = System.currentTimeMillis();
-        long duration = endTime - startTime;
-
-        executor.shutdown();
+        stockMetrics.record("pessimistic_multi", () -> {
+            // 요청 순서와 관계없이 한 번의 조회로 id 순서대로 모두 잠근 뒤 검증
+            List<Product> products = productRepository.findAllByIdWithPessimisticWriteLock(quantities.keySet());
+            MultiItemDecrease.apply(products, quantities);
+            // 배치 UPDATE 를 기록 구간 안에서 보내야 전송 시간과 실패가 stock.decrease 지표에 포함됨
+            entityManager.flush();
+        });
+    }
 
-        log.info("Pessimistic lock test completed. Duration: {}ms, Success: {}, Fail: {}",
-                duration, successCount.get(), failCount.get());
+    @Override
+    public LockTestResult runMultiItemPerformanceTest(List<Map<Long, Integer>> orders) {
+        return lockTestRunner.run("Pessimistic lock (multi-item)", orders.size(), threadNum ->
+                transactionTemplate.executeWithoutResult(status -> decreaseStocks(orders.get(threadNum))));
+    }
 
-        return duration;
+    @Override
+    public LockTestResult runPerformanceTest(Long productId, int quantity, int threadCount) {
+        return lockTestRunner.run("Pessimistic lock", threadCount, threadNum ->
+                // 프로그래밍 방식으로 트랜잭션을 시작하여 각 스레드가 명시적인 트랜잭션 내에서 실행되도록 함
+                transactionTemplate.execute(status -> {
+                    try {
+                        decreaseStock(productId, quantity);
+                        return true;
+                    } catch (Exception e) {
+                        status.setRollbackOnly();
+                        throw e;
+                    }
+                }));
     }
 }
\ No newline at end of file
@@ -0,0 +1,288 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.LockTestResult;
+import com.tetz.kb6_back.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+// 재고 판단을 전부 메모리에서 하는 단일 writer 엔진 (flash sale 용)
+// - 상품을 partitions 개의 이벤트 루프로 나누고, 각 루프 스레드만 자기 상품의 재고 맵에 접근 (락 없음)
+// - 호출자는 명령을 루프의 큐에 넣고 CompletableFuture 로 결과를 받음
+// - 변경된 재고는 snapshot-interval-ms 마다 모아서 별도 스레드에서 한 트랜잭션으로 products.stock 에 반영
+// 주의: 반영 전에 프로세스가 죽으면 마지막 스냅샷 이후의 차감이 사라지므로 단일 인스턴스에서만 사용
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductInventoryEngine implements AbstractProductService {
+
+    // 루프 한 바퀴에서 처리할 최대 명령 수 (부하가 계속 들어와도 스냅샷 주기를 지키기 위함)
+    private static final int MAX_DRAIN = 1024;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LockTestRunner lockTestRunner;
+    private final StockMetrics stockMetrics;
+
+    @Value("${inventory-engine.partitions:4}")
+    private int partitionCount;
+
+    @Value("${inventory-engine.snapshot-interval-ms:100}")
+    private long snapshotIntervalMillis;
+
+    @Value("${inventory-engine.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    private Partition[] partitions;
+
+    // 스냅샷 반영은 단일 스레드에서 제출 순서대로 수행하므로 같은 상품의 오래된 스냅샷이 새 값을 덮어쓰지 않음
+    private ExecutorService snapshotWriter;
+
+    @PostConstruct
+    public void init() {
+        snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i);
+            partitions[i].thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // 루프를 멈추면서 남은 명령과 마지막 스냅샷을 처리한 뒤 반영 스레드 종료
+        for (Partition partition : partitions) {
+            partition.running = false;
+            LockSupport.unpark(partition.thread);
+        }
+        for (Partition partition : partitions) {
+            partition.thread.join(timeoutMillis);
+        }
+        snapshotWriter.shutdown();
+        snapshotWriter.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void decreaseStock(Long productId, int quantity) {
+        stockMetrics.record("in_memory", () ->
+                await(partitionOf(productId).submit(new Decrease(productId, quantity, new CompletableFuture<>()))));
+    }
+
+    // 상품이 속한 파티션의 변경분을 즉시 DB 에 반영하고 반영이 끝날 때까지 대기
+    public void flush(Long productId) {
+        await(partitionOf(productId).submit(new Flush(new CompletableFuture<>())));
+    }
+
+    @Override
+    public LockTestResult runPerformanceTest(Long productId, int quantity, int threadCount) {
+        // 밀린 스냅샷을 반영하고 메모리 재고를 비워서, 다른 서비스가 바꿨을 수 있는 DB 재고부터 다시 시작
+        flush(productId);
+        await(partitionOf(productId).submit(new Evict(productId, new CompletableFuture<>())));
+
+        LockTestResult result = lockTestRunner.run("In-memory engine", threadCount,
+                threadNum -> decreaseStock(productId, quantity));
+
+        // 결과 비교를 위해 최종 재고를 즉시 DB 에 반영
+        flush(productId);
+
+        return result;
+    }
+
+    private Partition partitionOf(Long productId) {
+        return partitions[Math.floorMod(productId.hashCode(), partitions.length)];
+    }
+
+    private void await(CompletableFuture<Void> future) {
+        try {
+            future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out waiting for inventory engine", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Thread interrupted", e);
+        }
+    }
+
+    private sealed interface Command permits Decrease, Flush, Evict, MarkDirty {
+        CompletableFuture<Void> future();
+    }
+
+    private record Decrease(Long productId, int quantity, CompletableFuture<Void> future) implements Command {
+    }
+
+    private record Flush(CompletableFuture<Void> future) implements Command {
+    }
+
+    private record Evict(Long productId, CompletableFuture<Void> future) implements Command {
+    }
+
+    // 스냅샷 반영에 실패한 상품을 다음 주기에 다시 반영하도록 표시
+    private record MarkDirty(Set<Long> productIds, CompletableFuture<Void> future) implements Command {
+    }
+
+    private class Partition implements Runnable {
+        private final Thread thread;
+        private final ConcurrentLinkedQueue<Command> commands = new ConcurrentLinkedQueue<>();
+        // 루프가 잠들어 있을 때만 unpark 해서 바쁜 루프에 불필요한 시스템 콜을 보내지 않음
+        private final AtomicBoolean parked = new AtomicBoolean();
+        private volatile boolean running = true;
+
+        // 아래 필드는 이벤트 루프 스레드에서만 접근
+        private final Map<Long, Integer> stocks = new HashMap<>();
+        private final Set<Long> dirtyProductIds = new HashSet<>();
+        private long nextSnapshotAt;
+
+        Partition(int index) {
+            thread = new Thread(this, "inventory-engine-" + index);
+            thread.setDaemon(true);
+        }
+
+        CompletableFuture<Void> submit(Command command) {
+            commands.offer(command);
+            if (parked.get()) {
+                LockSupport.unpark(thread);
+            }
+            return command.future();
+        }
+
+        @Override
+        public void run() {
+            long intervalNanos = TimeUnit.MILLISECONDS.toNanos(snapshotIntervalMillis);
+            nextSnapshotAt = System.nanoTime() + intervalNanos;
+
+            while (running) {
+                int processed = drain();
+
+                long now = System.nanoTime();
+                if (now >= nextSnapshotAt) {
+                    snapshot(null);
+                    nextSnapshotAt = now + intervalNanos;
+                }
+
+                if (processed == 0) {
+                    // parked 를 먼저 세운 뒤 큐를 다시 확인해야 그 사이에 들어온 명령을 놓치지 않음
+                    parked.set(true);
+                    if (commands.isEmpty() && running) {
+                        LockSupport.parkNanos(nextSnapshotAt - now);
+                    }
+                    parked.set(false);
+                }
+            }
+
+            while (drain() > 0) {
+                // 종료 전에 남은 명령 처리
+            }
+            snapshot(null);
+        }
+
+        private int drain() {
+            int processed = 0;
+            Command command;
+            while (processed < MAX_DRAIN && (command = commands.poll()) != null) {
+                try {
+                    handle(command);
+                } catch (RuntimeException e) {
+                    command.future().completeExceptionally(e);
+                }
+                processed++;
+            }
+            return processed;
+        }
+
+        private void handle(Command command) {
+            switch (command) {
+                case Decrease decrease -> {
+                    decrease(decrease.productId(), decrease.quantity());
+                    decrease.future().complete(null);
+                }
+                case Flush flush -> snapshot(flush.future());
+                case Evict evict -> {
+                    stocks.remove(evict.productId());
+                    dirtyProductIds.remove(evict.productId());
+                    evict.future().complete(null);
+                }
+                case MarkDirty markDirty -> {
+                    markDirty.productIds().stream().filter(stocks::containsKey).forEach(dirtyProductIds::add);
+                    markDirty.future().complete(null);
+                }
+            }
+        }
+
+        private void decrease(Long productId, int quantity) {
+            Integer stock = stocks.get(productId);
+            if (stock == null) {
+                // 상품별 최초 요청만 루프에서 DB 를 조회
+                stock = productRepository.findById(productId)
+                        .orElseThrow(() -> new RuntimeException("Product not found"))
+                        .getStock();
+            }
+
+            if (stock < quantity) {
+                stocks.put(productId, stock);
+                throw new RuntimeException("Not enough stock");
+            }
+
+            stocks.put(productId, stock - quantity);
+            dirtyProductIds.add(productId);
+        }
+
+        // 변경된 재고의 현재 값을 복사해서 반영 스레드에 넘김, done 은 반영이 끝나면 완료 (null 이면 주기 반영)
+        private void snapshot(CompletableFuture<Void> done) {
+            if (dirtyProductIds.isEmpty() && done == null) {
+                return;
+            }
+
+            Map<Long, Integer> batch = new HashMap<>();
+            for (Long productId : dirtyProductIds) {
+                batch.put(productId, stocks.get(productId));
+            }
+            dirtyProductIds.clear();
+
+            snapshotWriter.execute(() -> {
+                try {
+                    if (!batch.isEmpty()) {
+                        transactionTemplate.executeWithoutResult(status ->
+                                batch.forEach(productRepository::updateStock));
+                    }
+                    if (done != null) {
+                        done.complete(null);
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to persist inventory snapshot for {} products: {}", batch.size(), e.getMessage());
+                    submit(new MarkDirty(batch.keySet(), new CompletableFuture<>()));
+                    if (done != null) {
+                        done.completeExceptionally(e);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.UserDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// RedisService 의 리액티브 버전 (Lettuce 비동기 API, 요청 스레드를 Redis 응답 대기 동안 점유하지 않음)
+// 키 규칙과 저장 방식(STRING/HASH)은 RedisService 와 동일하게 따르고, 쓰기 시 near-cache 무효화도 함께 발행
+@Service
+@RequiredArgsConstructor
+public class ReactiveRedisService {
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final RedisService redisService;
+    private final UserNearCache nearCache;
+    private final RedisScript<Long> saveUserHashScript;
+
+    @Value("${redis.bulk.batch-size:1000}")
+    private int batchSize;
+
+    public Mono<UserDto> getUser(String userId) {
+        if (redisService.getLayout() == RedisService.StorageLayout.HASH) {
+            return reactiveRedisTemplate.opsForHash()
+                    .get(redisService.bucketKey(userId), userId)
+                    .cast(UserDto.class);
+        }
+        return reactiveRedisTemplate.opsForValue()
+                .get(redisService.userKey(userId))
+                .cast(UserDto.class);
+    }
+
+    // RedisController.saveUser 와 같이 만료 시간을 두고 저장 (HASH 방식은 필드 만료 HPEXPIRE 사용)
+    public Mono<Void> saveUserWithExpiration(UserDto user, Duration timeout) {
+        Mono<?> save;
+        if (redisService.getLayout() == RedisService.StorageLayout.HASH) {
+            save = reactiveRedisTemplate.execute(saveUserHashScript,
+                            List.of(redisService.bucketKey(user.getId())),
+                            redisService.hashScriptArgs(user, timeout.toMillis(), false),
+                            RedisElementWriter.from(RedisSerializer.byteArray()),
+                            RedisElementReader.from(new GenericToStringSerializer<>(Long.class)))
+                    .then();
+        } else {
+            save = reactiveRedisTemplate.opsForValue().set(redisService.userKey(user.getId()), user, timeout);
+        }
+        return save.then(invalidate(user.getId()));
+    }
+
+    public Mono<Void> deleteUser(String userId) {
+        Mono<Long> delete = redisService.getLayout() == RedisService.StorageLayout.HASH
+                ? reactiveRedisTemplate.opsForHash().remove(redisService.bucketKey(userId), userId)
+                : reactiveRedisTemplate.delete(redisService.userKey(userId));
+        return delete.then(invalidate(userId));
+    }
+
+    // 배치 단위 MGET 결과를 도착하는 대로 흘려보냄 (전체 결과를 모은 뒤 응답하지 않음)
+    // HASH 방식이면 사용자별 조회(getUser)를 동시에 최대 batchSize 개까지 실행
+    public Flux<UserDto> getUsers(List<String> userIds) {
+        if (redisService.getLayout() == RedisService.StorageLayout.HASH) {
+            return Flux.fromIterable(userIds).flatMapSequential(this::getUser, batchSize);
+        }
+
+        return Flux.fromIterable(userIds)
+                .buffer(batchSize)
+                .concatMap(batch -> {
+                    List<String> keys = new ArrayList<>(batch.size());
+                    for (String userId : batch) {
+                        keys.add(redisService.userKey(userId));
+                    }
+                    return reactiveRedisTemplate.opsForValue().multiGet(keys);
+                })
+                // 없는 키는 null 로 오는데 Flux 는 null 원소를 허용하지 않으므로 먼저 걸러냄
+                .flatMapIterable(values -> values.stream().filter(Objects::nonNull).toList())
+                .cast(UserDto.class);
+    }
+
+    // 쓰기가 끝난 뒤에 실행되도록 defer, near-cache 를 끄면 발행하지 않음
+    private Mono<Void> invalidate(String userId) {
+        return Mono.defer(() -> {
+            if (!nearCache.isEnabled()) {
+                return Mono.<Void>empty();
+            }
+            nearCache.invalidateLocal(userId);
+            return reactiveRedisTemplate.convertAndSend(nearCache.getChannel(), userId).then();
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.LockTestResult;
+import com.tetz.kb6_back.entity.Product;
+import com.tetz.kb6_back.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 재고를 Redis 에 두고 Lua 스크립트로 원자적으로 차감, DB 에는 주기적으로 최종 재고만 반영 (write-behind)
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RedisAtomicProductService implements AbstractProductService {
+
+    private static final String STOCK_KEY_PREFIX = "product:stock:";
+    private static final long STOCK_NOT_LOADED = -1L;
+    private static final long NOT_ENOUGH_STOCK = -2L;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisScript<Long> decreaseStockScript;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LockTestRunner lockTestRunner;
+    private final StockMetrics stockMetrics;
+
+    // Redis 에서 차감되었지만 아직 DB 에 반영되지 않은 상품
+    private final Set<Long> dirtyProductIds = ConcurrentHashMap.newKeySet();
+
+    // 반영은 이 스레드 하나에서 제출 순서대로만 수행
+    // (스케줄러와 runPerformanceTest 가 동시에 반영하면 먼저 읽은 오래된 재고가 나중에 커밋될 수 있음)
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "redis-stock-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+    }
+
+    @Override
+    public void decreaseStock(Long productId, int quantity) {
+        stockMetrics.record("redis_atomic", () -> {
+            long result = executeDecrease(productId, quantity);
+
+            // 최초 요청이면 DB 재고를 Redis 에 적재 후 재시도
+            if (result == STOCK_NOT_LOADED) {
+                loadStock(productId, false);
+                result = executeDecrease(productId, quantity);
+            }
+
+            if (result == NOT_ENOUGH_STOCK) {
+                throw new RuntimeException("Not enough stock");
+            }
+            // 재시도 후에도 적재되지 않았으면(동시 삭제 등) 차감되지 않았으므로 성공으로 처리하지 않음
+            if (result < 0) {
+                throw new RuntimeException("Stock not loaded for product " + productId);
+            }
+
+            dirtyProductIds.add(productId);
+        });
+    }
+
+    // 변경된 재고를 주기적으로 DB 에 반영 (반영이 끝날 때까지 기다려서 다음 주기와 겹치지 않도록 함)
+    @Scheduled(fixedDelayString = "${redis-stock.flush-interval-ms:1000}")
+    public void flushDirtyStocks() {
+        CompletableFuture.allOf(new ArrayList<>(dirtyProductIds).stream()
+                .map(this::flushStock)
+                .toArray(CompletableFuture[]::new)).join();
+    }
+
+    // 반영 스레드에 제출하고, 앞서 제출된(진행 중인) 반영까지 끝나면 완료되는 future 반환
+    public CompletableFuture<Void> flushStock(Long productId) {
+        return CompletableFuture.runAsync(() -> writeStock(productId), flusher);
+    }
+
+    // 반영 전에 dirty 표시를 먼저 지워서, 반영 도중 들어온 차감은 다음 주기에 다시 반영되도록 함
+    private void writeStock(Long productId) {
+        if (!dirtyProductIds.remove(productId)) {
+            return;
+        }
+
+        String stock = stringRedisTemplate.opsForValue().get(STOCK_KEY_PREFIX + productId);
+        if (stock == null) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    productRepository.updateStock(productId, Integer.parseInt(stock)));
+        } catch (Exception e) {
+            dirtyProductIds.add(productId);
+            log.error("Failed to flush stock for product {}: {}", productId, e.getMessage());
+        }
+    }
+
+    @Override
+    public LockTestResult runPerformanceTest(Long productId, int quantity, int threadCount) {
+        // 밀린 반영분을 먼저 DB 에 쓰고, 다른 서비스가 바꿨을 수 있는 DB 재고로 Redis 를 다시 맞춤
+        flushStock(productId).join();
+        loadStock(productId, true);
+
+        LockTestResult result = lockTestRunner.run("Redis atomic", threadCount,
+                threadNum -> decreaseStock(productId, quantity));
+
+        // 결과 비교를 위해 최종 재고를 즉시 DB 에 반영
+        flushStock(productId).join();
+
+        return result;
+    }
+
+    private long executeDecrease(Long productId, int quantity) {
+        Long result = stringRedisTemplate.execute(decreaseStockScript,
+                List.of(STOCK_KEY_PREFIX + productId), String.valueOf(quantity));
+        return result != null ? result : STOCK_NOT_LOADED;
+    }
+
+    // overwrite=false 이면 이미 적재된 재고를 덮어쓰지 않음 (동시 최초 요청 대비 SETNX)
+    private void loadStock(Long productId, boolean overwrite) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+
+        String key = STOCK_KEY_PREFIX + productId;
+        String stock = String.valueOf(product.getStock());
+        if (overwrite) {
+            stringRedisTemplate.opsForValue().set(key, stock);
+        } else {
+            stringRedisTemplate.opsForValue().setIfAbsent(key, stock);
+        }
+    }
+}
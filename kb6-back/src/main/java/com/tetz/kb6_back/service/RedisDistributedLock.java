@@ -0,0 +1,168 @@
+package com.tetz.kb6_back.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Redisson 방식의 Redis 분산 락
+// - SET NX PX 로 획득, 획득할 때마다 INCR 로 단조 증가하는 펜싱 토큰 발급
+// - 대기 중에는 폴링 대신 해제 알림(Pub/Sub)을 기다림
+// - 보유 중에는 임대 시간의 1/3 주기로 만료 시간을 연장 (watchdog)
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisDistributedLock implements MessageListener {
+
+    private static final String LOCK_KEY_PREFIX = "lock:";
+    private static final String FENCING_KEY_PREFIX = "lock-fencing:";
+    private static final String RELEASE_CHANNEL = "lock:released";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisScript<Long> unlockScript;
+    private final RedisScript<Long> renewLockScript;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // 이 JVM 을 구분하는 식별자 (락 값 = nodeId:fencingToken)
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // 락 키별 대기자, 해제 알림을 받으면 generation 을 올리고 깨움
+    private final ConcurrentHashMap<String, Waiter> waiters = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService renewalScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "lock-renewal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RELEASE_CHANNEL));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewalScheduler.shutdownNow();
+    }
+
+    // waitMillis 안에 획득하지 못하면 null 반환
+    public LockHandle tryLock(String name, long waitMillis, long leaseMillis) throws InterruptedException {
+        String key = LOCK_KEY_PREFIX + name;
+        Waiter waiter = waiters.computeIfAbsent(key, k -> new Waiter());
+        long deadline = System.currentTimeMillis() + waitMillis;
+
+        while (true) {
+            // 시도 전에 알림 세대를 기억해 두어야 시도와 대기 사이에 온 해제 알림을 놓치지 않음
+            long seenGeneration = waiter.currentGeneration();
+
+            Long fencingToken = stringRedisTemplate.opsForValue().increment(FENCING_KEY_PREFIX + name);
+            String value = nodeId + ":" + fencingToken;
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(key, value, Duration.ofMillis(leaseMillis));
+
+            if (Boolean.TRUE.equals(acquired)) {
+                LockHandle handle = new LockHandle(key, value, fencingToken);
+                handle.renewal = scheduleRenewal(handle, leaseMillis);
+                return handle;
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return null;
+            }
+
+            // 보유자가 죽어서 해제 알림이 오지 않는 경우를 대비해 남은 TTL 이상은 기다리지 않음
+            Long ttl = stringRedisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+            long waitTime = (ttl != null && ttl > 0) ? Math.min(remaining, ttl) : 1;
+            waiter.await(seenGeneration, waitTime);
+        }
+    }
+
+    public void unlock(LockHandle handle) {
+        if (handle.renewal != null) {
+            handle.renewal.cancel(false);
+        }
+
+        Long released = stringRedisTemplate.execute(unlockScript,
+                List.of(handle.key), handle.value, RELEASE_CHANNEL);
+        if (released == null || released == 0) {
+            log.warn("Lock {} was already expired or taken over (token {})", handle.key, handle.fencingToken);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String key = new String(message.getBody(), StandardCharsets.UTF_8);
+        Waiter waiter = waiters.get(key);
+        if (waiter != null) {
+            waiter.signal();
+        }
+    }
+
+    private ScheduledFuture<?> scheduleRenewal(LockHandle handle, long leaseMillis) {
+        long interval = Math.max(leaseMillis / 3, 1);
+        return renewalScheduler.scheduleAtFixedRate(() -> {
+            try {
+                Long renewed = stringRedisTemplate.execute(renewLockScript,
+                        List.of(handle.key), handle.value, String.valueOf(leaseMillis));
+                if (renewed == null || renewed == 0) {
+                    log.warn("Lost lock {} (token {}), stopping renewal", handle.key, handle.fencingToken);
+                    handle.renewal.cancel(false);
+                }
+            } catch (Exception e) {
+                log.error("Failed to renew lock {}: {}", handle.key, e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Getter
+    public static class LockHandle {
+        private final String key;
+        private final String value;
+        private final long fencingToken;
+        private volatile ScheduledFuture<?> renewal;
+
+        private LockHandle(String key, String value, long fencingToken) {
+            this.key = key;
+            this.value = value;
+            this.fencingToken = fencingToken;
+        }
+    }
+
+    private static class Waiter {
+        private long generation;
+
+        synchronized long currentGeneration() {
+            return generation;
+        }
+
+        synchronized void await(long seenGeneration, long timeoutMillis) throws InterruptedException {
+            if (generation == seenGeneration) {
+                wait(timeoutMillis);
+            }
+        }
+
+        synchronized void signal() {
+            generation++;
+            notifyAll();
+        }
+    }
+}
@@ -1,35 +1,427 @@
 package com.tetz.kb6_back.service;
 
 import com.tetz.kb6_back.dto.UserDto;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class RedisService {
     private final RedisTemplate<String, Object> redisTemplate;
+    private final UserNearCache nearCache;
+    private final RedisScript<Long> saveUserHashScript;
     private static final String KEY_PREFIX = "user:";
+    private static final String BUCKET_KEY_PREFIX = "user:bucket:";
+    private static final RedisSerializer<Long> LONG_RESULT = new GenericToStringSerializer<>(Long.class);
 
+    // 사용자 저장 방식
+    // - STRING: 사용자마다 user:<id> 최상위 키
+    // - HASH  : user:bucket:<n> 해시의 필드로 저장, 키 개수가 bucketCount 로 줄고 작은 해시는 listpack 으로 압축됨
+    //           (버킷당 필드 수 <= hash-max-listpack-entries(128), 값 크기 <= hash-max-listpack-value(64바이트) 일 때만
+    //            압축되므로 redis.serializer=binary 와 함께 쓰거나 Redis 설정을 늘려야 효과가 있음)
+    // HASH 방식의 TTL 저장은 필드 단위 만료(HPEXPIRE)를 쓰므로 Redis 7.4 이상이 필요 (시작 시 확인)
+    public enum StorageLayout { STRING, HASH }
+
+    // 한 번의 MGET/MSET/파이프라인에 담을 최대 키 개수
+    @Value("${redis.bulk.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${redis.user-layout:string}")
+    private String layoutName;
+
+    @Value("${redis.hash.bucket-count:16384}")
+    private int bucketCount;
+
+    private StorageLayout layout;
+
+    @PostConstruct
+    public void init() {
+        layout = StorageLayout.valueOf(layoutName.toUpperCase());
+        if (layout == StorageLayout.HASH) {
+            requireHashFieldExpiration();
+        }
+    }
+
+    // 필드 만료를 지원하지 않는 Redis 에서 STRING 키로 몰래 되돌아가지 않도록 시작 단계에서 실패시킴
+    private void requireHashFieldExpiration() {
+        Properties info = redisTemplate.execute(
+                (RedisCallback<Properties>) connection -> connection.serverCommands().info("server"));
+        String version = info == null ? "" : info.getProperty("redis_version", "");
+        String[] parts = version.split("\\.");
+        boolean supported;
+        try {
+            int major = Integer.parseInt(parts[0]);
+            int minor = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            supported = major > 7 || (major == 7 && minor >= 4);
+        } catch (NumberFormatException e) {
+            supported = false;
+        }
+        if (!supported) {
+            throw new IllegalStateException(
+                    "redis.user-layout=hash requires Redis 7.4+ for hash field expiration, but server is " + version);
+        }
+    }
+
+    @Timed(value = "redis.user.operations", extraTags = {"operation", "save"})
     public void saveUser(UserDto user) {
-        String key = KEY_PREFIX + user.getId();
-        redisTemplate.opsForValue().set(key, user);
+        writeUser(redisTemplate, user);
+        nearCache.invalidate(user.getId());
+    }
+
+    // 저장과 sameTransaction 명령을 하나의 MULTI/EXEC 로 실행 (write-behind 변경 로그 XADD 등)
+    @Timed(value = "redis.user.operations", extraTags = {"operation", "save_in_transaction"})
+    public void saveUser(UserDto user, RedisCallback<?> sameTransaction) {
+        executeInTransaction(ops -> writeUser(ops, user), sameTransaction);
+        nearCache.invalidate(user.getId());
     }
 
+    private void writeUser(RedisOperations<String, Object> ops, UserDto user) {
+        if (layout == StorageLayout.HASH) {
+            ops.opsForHash().put(bucketKey(user.getId()), user.getId(), user);
+        } else {
+            ops.opsForValue().set(KEY_PREFIX + user.getId(), user);
+        }
+    }
+
+    // L1(near-cache) 히트 시 Redis 왕복과 역직렬화를 생략
+    @Timed(value = "redis.user.operations", extraTags = {"operation", "get"})
     public UserDto getUser(String userId) {
-        String key = KEY_PREFIX + userId;
-        return (UserDto) redisTemplate.opsForValue().get(key);
+        return nearCache.get(userId, this::loadUser);
+    }
+
+    // near-cache 를 거치지 않고 항상 Redis 에서 조회 (Redis 자체의 조회 성능 측정용)
+    @Timed(value = "redis.user.operations", extraTags = {"operation", "get_direct"})
+    public UserDto getUserFromRedis(String userId) {
+        return loadUser(userId);
     }
 
+    private UserDto loadUser(String userId) {
+        if (layout == StorageLayout.HASH) {
+            return (UserDto) redisTemplate.opsForHash().get(bucketKey(userId), userId);
+        }
+        return (UserDto) redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+    }
+
+    @Timed(value = "redis.user.operations", extraTags = {"operation", "delete"})
     public void deleteUser(String userId) {
-        String key = KEY_PREFIX + userId;
-        redisTemplate.delete(key);
+        removeUser(redisTemplate, userId);
+        nearCache.invalidate(userId);
+    }
+
+    // 삭제와 sameTransaction 명령을 하나의 MULTI/EXEC 로 실행
+    @Timed(value = "redis.user.operations", extraTags = {"operation", "delete_in_transaction"})
+    public void deleteUser(String userId, RedisCallback<?> sameTransaction) {
+        executeInTransaction(ops -> removeUser(ops, userId), sameTransaction);
+        nearCache.invalidate(userId);
+    }
+
+    private void removeUser(RedisOperations<String, Object> ops, String userId) {
+        if (layout == StorageLayout.HASH) {
+            ops.opsForHash().delete(bucketKey(userId), userId);
+        } else {
+            ops.delete(KEY_PREFIX + userId);
+        }
+    }
+
+    // 세션 안의 RedisCallback 은 같은(바인딩된) 커넥션을 쓰므로 MULTI 대기열에 함께 들어감
+    private void executeInTransaction(Consumer<RedisOperations<String, Object>> write, RedisCallback<?> sameTransaction) {
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.multi();
+                write.accept(ops);
+                ops.execute(sameTransaction);
+                return ops.exec();
+            }
+        });
     }
 
+    @Timed(value = "redis.user.operations", extraTags = {"operation", "save_with_expiration"})
     public void saveUserWithExpiration(UserDto user, long timeout, TimeUnit timeUnit) {
-        String key = KEY_PREFIX + user.getId();
-        redisTemplate.opsForValue().set(key, user, timeout, timeUnit);
+        if (layout == StorageLayout.HASH) {
+            redisTemplate.execute(saveUserHashScript, RedisSerializer.byteArray(), LONG_RESULT,
+                    List.of(bucketKey(user.getId())),
+                    hashScriptArgs(user, timeUnit.toMillis(timeout), false).toArray());
+        } else {
+            redisTemplate.opsForValue().set(KEY_PREFIX + user.getId(), user, timeout, timeUnit);
+        }
+        nearCache.invalidate(user.getId());
+    }
+
+    // 대량 저장: 배치 단위 MSET 으로 왕복 횟수를 N -> N / batchSize 로 줄임
+    @Timed(value = "redis.user.operations", extraTags = {"operation", "bulk_save"})
+    public void saveUsers(Collection<UserDto> users) {
+        saveUsers(users, layout);
+    }
+
+    // HASH 방식은 배치를 버킷별로 묶어 HSET(다중 필드) 명령들을 파이프라인으로 전송
+    public void saveUsers(Collection<UserDto> users, StorageLayout storageLayout) {
+        for (List<UserDto> batch : partition(users)) {
+            if (storageLayout == StorageLayout.HASH) {
+                Map<String, Map<String, Object>> buckets = new LinkedHashMap<>();
+                for (UserDto user : batch) {
+                    buckets.computeIfAbsent(bucketKey(user.getId()), k -> new LinkedHashMap<>())
+                            .put(user.getId(), user);
+                }
+                redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                        RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                        buckets.forEach((bucketKey, fields) -> ops.opsForHash().putAll(bucketKey, fields));
+                        return null;
+                    }
+                });
+            } else {
+                Map<String, Object> entries = new LinkedHashMap<>();
+                for (UserDto user : batch) {
+                    entries.put(KEY_PREFIX + user.getId(), user);
+                }
+                redisTemplate.opsForValue().multiSet(entries);
+            }
+            nearCache.invalidateAll(batch.stream().map(UserDto::getId).toList());
+        }
+    }
+
+    // MSET 은 만료 시간을 지정할 수 없으므로 SET EX 명령들을 파이프라인으로 묶어서 전송
+    // HASH 방식은 HSET + HPEXPIRE 스크립트를 파이프라인으로 전송
+    @Timed(value = "redis.user.operations", extraTags = {"operation", "bulk_save_with_expiration"})
+    public void saveUsersWithExpiration(Collection<UserDto> users, long timeout, TimeUnit timeUnit) {
+        for (List<UserDto> batch : partition(users)) {
+            if (layout == StorageLayout.HASH) {
+                evalHashScriptPipelined(batch, timeUnit.toMillis(timeout), false);
+            } else {
+                redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                        RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                        for (UserDto user : batch) {
+                            ops.opsForValue().set(KEY_PREFIX + user.getId(), user, timeout, timeUnit);
+                        }
+                        return null;
+                    }
+                });
+            }
+            nearCache.invalidateAll(batch.stream().map(UserDto::getId).toList());
+        }
+    }
+
+    // 이미 있는 값은 덮어쓰지 않는 대량 저장 (SET NX / HSETNX 파이프라인)
+    // 캐시 워밍처럼 DB 값을 채워 넣을 때, 그 사이 Redis 에 먼저 반영된 최신 값(write-behind 등)을 보존
+    // timeout 이 0 이하이면 만료 시간 없이 저장
+    @Timed(value = "redis.user.operations", extraTags = {"operation", "bulk_save_if_absent"})
+    public void saveUsersIfAbsent(Collection<UserDto> users, long timeout, TimeUnit timeUnit) {
+        for (List<UserDto> batch : partition(users)) {
+            if (layout == StorageLayout.HASH) {
+                evalHashScriptPipelined(batch, timeout > 0 ? timeUnit.toMillis(timeout) : 0, true);
+                continue;
+            }
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    for (UserDto user : batch) {
+                        if (timeout > 0) {
+                            ops.opsForValue().setIfAbsent(KEY_PREFIX + user.getId(), user, timeout, timeUnit);
+                        } else {
+                            ops.opsForValue().setIfAbsent(KEY_PREFIX + user.getId(), user);
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+    }
+
+    // HSETNX/HSET + HPEXPIRE 를 한 스크립트로 실행해서, 필드 저장과 만료 설정 사이에 다른 쓰기가 끼어들지 않게 함
+    // 스크립트 캐시가 비워져도 실패하지 않도록 파이프라인에서는 EVALSHA 대신 EVAL 사용
+    private void evalHashScriptPipelined(List<UserDto> batch, long ttlMillis, boolean ifAbsent) {
+        byte[] script = saveUserHashScript.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (UserDto user : batch) {
+                List<byte[]> keysAndArgs = new ArrayList<>(5);
+                keysAndArgs.add(bucketKey(user.getId()).getBytes(StandardCharsets.UTF_8));
+                keysAndArgs.addAll(hashScriptArgs(user, ttlMillis, ifAbsent));
+                connection.scriptingCommands().eval(script, ReturnType.INTEGER, 1, keysAndArgs.toArray(new byte[0][]));
+            }
+            return null;
+        });
+    }
+
+    // save_user_hash.lua 인자 (필드, 직렬화된 사용자, 만료 ms, NX 여부)
+    // 값은 opsForHash 와 같은 해시 값 직렬화기로 미리 바이트로 만들어서, 일반 HGET/HMGET 으로 그대로 읽히게 함
+    @SuppressWarnings("unchecked")
+    List<byte[]> hashScriptArgs(UserDto user, long ttlMillis, boolean ifAbsent) {
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+        return List.of(
+                user.getId().getBytes(StandardCharsets.UTF_8),
+                valueSerializer.serialize(user),
+                String.valueOf(Math.max(ttlMillis, 0)).getBytes(StandardCharsets.UTF_8),
+                (ifAbsent ? "1" : "0").getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 대량 조회: 배치 단위 MGET, 존재하지 않는 사용자는 결과에서 제외 (요청 순서 유지)
+    // HASH 방식은 버킷별 HMGET 을 파이프라인으로 전송
+    @Timed(value = "redis.user.operations", extraTags = {"operation", "bulk_get"})
+    public Map<String, UserDto> getUsers(Collection<String> userIds) {
+        Map<String, UserDto> result = new LinkedHashMap<>();
+        for (List<String> batch : partition(userIds)) {
+            result.putAll(layout == StorageLayout.HASH ? multiGetFromBuckets(batch) : multiGetFromKeys(batch));
+        }
+        return result;
+    }
+
+    private Map<String, UserDto> multiGetFromKeys(List<String> userIds) {
+        List<String> keys = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            keys.add(KEY_PREFIX + userId);
+        }
+
+        Map<String, UserDto> result = new LinkedHashMap<>();
+        List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return result;
+        }
+
+        for (int i = 0; i < userIds.size(); i++) {
+            Object value = values.get(i);
+            if (value != null) {
+                result.put(userIds.get(i), (UserDto) value);
+            }
+        }
+        return result;
+    }
+
+    private Map<String, UserDto> multiGetFromBuckets(List<String> userIds) {
+        Map<String, List<Object>> buckets = new LinkedHashMap<>();
+        for (String userId : userIds) {
+            buckets.computeIfAbsent(bucketKey(userId), k -> new ArrayList<>()).add(userId);
+        }
+
+        List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                buckets.forEach((bucketKey, fields) -> ops.opsForHash().multiGet(bucketKey, fields));
+                return null;
+            }
+        });
+
+        // 파이프라인 응답은 명령 순서대로, 각 HMGET 응답은 필드 순서대로 반환됨
+        Map<String, UserDto> result = new LinkedHashMap<>();
+        int reply = 0;
+        for (List<Object> fields : buckets.values()) {
+            List<?> values = (List<?>) replies.get(reply++);
+            for (int i = 0; i < fields.size(); i++) {
+                Object value = values.get(i);
+                if (value != null) {
+                    result.put((String) fields.get(i), (UserDto) value);
+                }
+            }
+        }
+        return result;
+    }
+
+    // 대량 삭제: 배치 단위 다중 키 DEL
+    @Timed(value = "redis.user.operations", extraTags = {"operation", "bulk_delete"})
+    public long deleteUsers(Collection<String> userIds) {
+        return deleteUsers(userIds, layout);
+    }
+
+    // HASH 방식은 버킷별 HDEL 을 파이프라인으로 전송
+    public long deleteUsers(Collection<String> userIds, StorageLayout storageLayout) {
+        long deleted = 0;
+        for (List<String> batch : partition(userIds)) {
+            if (storageLayout == StorageLayout.HASH) {
+                Map<String, List<Object>> buckets = new LinkedHashMap<>();
+                for (String userId : batch) {
+                    buckets.computeIfAbsent(bucketKey(userId), k -> new ArrayList<>()).add(userId);
+                }
+                List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                        RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                        buckets.forEach((bucketKey, fields) -> ops.opsForHash().delete(bucketKey, fields.toArray()));
+                        return null;
+                    }
+                });
+                for (Object reply : replies) {
+                    deleted += reply instanceof Long count ? count : 0;
+                }
+            } else {
+                List<String> keys = new ArrayList<>(batch.size());
+                for (String userId : batch) {
+                    keys.add(KEY_PREFIX + userId);
+                }
+                Long count = redisTemplate.delete(keys);
+                deleted += count != null ? count : 0;
+            }
+            nearCache.invalidateAll(batch);
+        }
+        return deleted;
+    }
+
+    public StorageLayout getLayout() {
+        return layout;
+    }
+
+    // INFO memory 의 used_memory (바이트), 저장 방식별 메모리 사용량 비교용
+    public long getUsedMemory() {
+        Properties info = redisTemplate.execute(
+                (RedisCallback<Properties>) connection -> connection.serverCommands().info("memory"));
+        return info == null ? 0 : Long.parseLong(info.getProperty("used_memory", "0"));
+    }
+
+    // ReactiveRedisService 와 같은 키 규칙을 공유
+    String userKey(String userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    String bucketKey(String userId) {
+        return BUCKET_KEY_PREFIX + Math.floorMod(userId.hashCode(), bucketCount);
+    }
+
+    private <T> List<List<T>> partition(Collection<T> items) {
+        List<List<T>> batches = new ArrayList<>();
+        List<T> current = new ArrayList<>(Math.min(batchSize, items.size()));
+        for (T item : items) {
+            current.add(item);
+            if (current.size() == batchSize) {
+                batches.add(current);
+                current = new ArrayList<>(batchSize);
+            }
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
     }
 }
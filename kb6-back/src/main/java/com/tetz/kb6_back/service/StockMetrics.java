@@ -0,0 +1,64 @@
+package com.tetz.kb6_back.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+// 재고 차감 결과별 메트릭 (stock.decrease{service, outcome})
+// 서비스들은 실패 원인을 RuntimeException 메시지로 구분하므로 여기서도 같은 메시지로 분류
+@Component
+@RequiredArgsConstructor
+public class StockMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public void record(String service, Runnable action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("stock.decrease")
+                    .tag("service", service)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    // 낙관적 락 충돌로 인한 재시도 1회
+    public void recordOptimisticRetry() {
+        meterRegistry.counter("stock.decrease.optimistic.retries").increment();
+    }
+
+    private String outcome(RuntimeException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof PessimisticLockingFailureException
+                    || t instanceof LockTimeoutException
+                    || t instanceof PessimisticLockException) {
+                return "lock_timeout";
+            }
+        }
+
+        String message = e.getMessage() != null ? e.getMessage() : "";
+        if (message.startsWith("Not enough stock")) {
+            return "insufficient_stock";
+        }
+        if (message.startsWith("Product not found")) {
+            return "not_found";
+        }
+        if (message.startsWith("Failed to acquire lock")) {
+            return "lock_timeout";
+        }
+        if (message.startsWith("Failed to decrease stock after")) {
+            return "retry_exhausted";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,260 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.StockReservation;
+import com.tetz.kb6_back.entity.Product;
+import com.tetz.kb6_back.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+// 결제 동안 DB 트랜잭션을 잡고 있지 않도록 재고를 Redis 에서 잠시 예약(hold)
+// - reserve: 가용 재고 -> 예약으로 원자적으로 이동, 예약마다 TTL 키를 둠
+// - confirm: 예약을 지운 뒤 짧은 트랜잭션에서 조건부 UPDATE 한 번으로 products.stock 차감
+// - release: 명시적 취소, 또는 TTL 키 만료 시 자동으로 가용 재고로 되돌림
+//   (keyspace 알림은 구독이 끊기면 유실되므로 만료 zset 을 주기적으로 훑는 sweeper 를 함께 둠)
+// 가용 재고 = products.stock - 예약 합계 이므로 확정 전까지 products.stock 은 바뀌지 않음
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService implements MessageListener {
+
+    private static final String AVAILABLE_KEY_PREFIX = "reservation:available:";
+    private static final String HOLDS_KEY_PREFIX = "reservation:holds:";
+    private static final String HOLD_KEY_PREFIX = "reservation:hold:";
+    private static final String EXPIRY_KEY = "reservation:expiry";
+
+    private static final long STOCK_NOT_LOADED = -1L;
+    private static final long NOT_ENOUGH_STOCK = -2L;
+    private static final long RESERVATION_NOT_FOUND = -1L;
+    private static final long RESERVATION_EXPIRED = -2L;
+    // confirm 이 가용 재고 키를 지우는 것과 겹칠 수 있으므로 적재 후 재시도를 몇 번까지 허용
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisScript<Long> reserveStockScript;
+    private final RedisScript<Long> confirmReservationScript;
+    private final RedisScript<Long> releaseReservationScript;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${reservation.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${reservation.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    // 관리형 Redis 처럼 CONFIG 명령이 막혀 있으면 false 로 두고 서버 설정에서 notify-keyspace-events 에 Ex 를 켬
+    @Value("${reservation.configure-keyspace-notifications:true}")
+    private boolean configureKeyspaceNotifications;
+
+    @PostConstruct
+    public void init() {
+        if (configureKeyspaceNotifications) {
+            enableExpiredEvents();
+        }
+        listenerContainer.addMessageListener(this, new PatternTopic("__keyevent@*__:expired"));
+    }
+
+    public StockReservation reserve(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+
+        String reservationId = UUID.randomUUID().toString();
+        long ttlMillis = ttlSeconds * 1000;
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+
+        long result = executeReserve(productId, reservationId, quantity, ttlMillis, expiresAt);
+
+        // 최초 요청이거나 confirm 이 가용 재고를 다시 계산하려고 키를 지운 경우, DB 재고를 적재 후 재시도
+        for (int attempt = 0; result == STOCK_NOT_LOADED && attempt < MAX_LOAD_ATTEMPTS; attempt++) {
+            loadAvailable(productId);
+            result = executeReserve(productId, reservationId, quantity, ttlMillis, expiresAt);
+        }
+
+        if (result == NOT_ENOUGH_STOCK) {
+            throw new RuntimeException("Not enough stock");
+        }
+        // 그 외 음수면 아무것도 예약되지 않았으므로 예약 id 를 돌려주지 않음
+        if (result < 0) {
+            throw new RuntimeException("Stock not loaded for product " + productId);
+        }
+
+        return StockReservation.builder()
+                .reservationId(reservationId)
+                .productId(productId)
+                .quantity(quantity)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    public void confirm(Long productId, String reservationId) {
+        Long result = stringRedisTemplate.execute(confirmReservationScript,
+                keys(productId, reservationId), reservationId, member(productId, reservationId));
+        if (result == null || result == RESERVATION_NOT_FOUND) {
+            throw new RuntimeException("Reservation not found");
+        }
+        if (result == RESERVATION_EXPIRED) {
+            throw new RuntimeException("Reservation expired");
+        }
+
+        int quantity = result.intValue();
+        Integer updated;
+        try {
+            // 트랜잭션 안에서는 조건부 UPDATE 한 문장만 실행
+            updated = transactionTemplate.execute(status ->
+                    productRepository.decreaseStockIfAvailable(productId, quantity));
+        } catch (RuntimeException e) {
+            // 예약은 이미 지워졌으므로 수량을 가용 재고로 되돌림
+            returnToAvailable(productId, quantity);
+            throw e;
+        }
+
+        if (updated == null || updated == 0) {
+            // 예약 중에 다른 경로로 products.stock 이 줄어든 경우, 가용 재고를 DB 기준으로 다시 계산
+            stringRedisTemplate.delete(AVAILABLE_KEY_PREFIX + productId);
+            throw new RuntimeException("Not enough stock");
+        }
+    }
+
+    public void release(Long productId, String reservationId) {
+        if (executeRelease(productId, reservationId, true) == RESERVATION_NOT_FOUND) {
+            throw new RuntimeException("Reservation not found");
+        }
+    }
+
+    // 예약 TTL 키 만료 알림 (메시지 본문이 만료된 키 이름)
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String key = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (!key.startsWith(HOLD_KEY_PREFIX)) {
+            return;
+        }
+
+        String[] parts = key.substring(HOLD_KEY_PREFIX.length()).split(":", 2);
+        try {
+            executeRelease(Long.valueOf(parts[0]), parts[1], false);
+        } catch (Exception e) {
+            log.warn("Failed to release expired reservation {}: {}", key, e.getMessage());
+        }
+    }
+
+    // 알림을 놓친 만료 예약을 주기적으로 해제
+    @Scheduled(fixedDelayString = "${reservation.sweep-interval-ms:1000}")
+    public void sweepExpired() {
+        Set<String> expired = stringRedisTemplate.opsForZSet()
+                .rangeByScore(EXPIRY_KEY, 0, System.currentTimeMillis(), 0, sweepBatchSize);
+        if (expired == null) {
+            return;
+        }
+
+        for (String member : expired) {
+            String[] parts = member.split(":", 2);
+            try {
+                executeRelease(Long.valueOf(parts[0]), parts[1], false);
+            } catch (Exception e) {
+                log.warn("Failed to sweep expired reservation {}: {}", member, e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStatus(Long productId) {
+        Map<Object, Object> holds = stringRedisTemplate.opsForHash().entries(HOLDS_KEY_PREFIX + productId);
+        String available = stringRedisTemplate.opsForValue().get(AVAILABLE_KEY_PREFIX + productId);
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("productId", productId);
+        status.put("available", available != null ? Long.parseLong(available) : null);
+        status.put("held", sumHolds(holds));
+        status.put("holdCount", holds.size());
+        status.put("stock", findProduct(productId).getStock());
+        return status;
+    }
+
+    private long executeReserve(Long productId, String reservationId, int quantity, long ttlMillis, long expiresAt) {
+        Long result = stringRedisTemplate.execute(reserveStockScript, keys(productId, reservationId),
+                reservationId, String.valueOf(quantity), String.valueOf(ttlMillis), String.valueOf(expiresAt),
+                member(productId, reservationId));
+        return result != null ? result : STOCK_NOT_LOADED;
+    }
+
+    // explicit=false(만료 처리)이면 TTL 키가 남아 있는 예약은 건드리지 않음 (sweeper 와 Redis 시계 차이 대비)
+    private long executeRelease(Long productId, String reservationId, boolean explicit) {
+        Long result = stringRedisTemplate.execute(releaseReservationScript, keys(productId, reservationId),
+                reservationId, member(productId, reservationId), explicit ? "1" : "0");
+        long released = result != null ? result : RESERVATION_NOT_FOUND;
+        if (released > 0 && !explicit) {
+            log.debug("Released expired reservation {} of product {} ({} items)", reservationId, productId, released);
+        }
+        return released;
+    }
+
+    // 가용 재고 = DB 재고 - 현재 예약 합계 (동시 최초 요청 대비 SETNX)
+    private void loadAvailable(Long productId) {
+        int stock = findProduct(productId).getStock();
+        long held = sumHolds(stringRedisTemplate.opsForHash().entries(HOLDS_KEY_PREFIX + productId));
+        stringRedisTemplate.opsForValue().setIfAbsent(AVAILABLE_KEY_PREFIX + productId, String.valueOf(stock - held));
+    }
+
+    private void returnToAvailable(Long productId, int quantity) {
+        String key = AVAILABLE_KEY_PREFIX + productId;
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+            stringRedisTemplate.opsForValue().increment(key, quantity);
+        }
+    }
+
+    // 기존 notify-keyspace-events 설정은 유지하고 만료 이벤트(Ex)만 추가
+    private void enableExpiredEvents() {
+        try {
+            stringRedisTemplate.execute((RedisCallback<Void>) connection -> {
+                Properties config = connection.serverCommands().getConfig("notify-keyspace-events");
+                String flags = config != null ? config.getProperty("notify-keyspace-events", "") : "";
+                boolean enabled = flags.contains("E") && (flags.contains("x") || flags.contains("A"));
+                if (!enabled) {
+                    connection.serverCommands().setConfig("notify-keyspace-events", flags + "Ex");
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Could not enable keyspace notifications, relying on sweeper: {}", e.getMessage());
+        }
+    }
+
+    private long sumHolds(Map<Object, Object> holds) {
+        return holds.values().stream().mapToLong(value -> Long.parseLong(value.toString())).sum();
+    }
+
+    private Product findProduct(Long productId) {
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+    }
+
+    private List<String> keys(Long productId, String reservationId) {
+        return List.of(AVAILABLE_KEY_PREFIX + productId, HOLDS_KEY_PREFIX + productId, EXPIRY_KEY,
+                HOLD_KEY_PREFIX + productId + ":" + reservationId);
+    }
+
+    private String member(Long productId, String reservationId) {
+        return productId + ":" + reservationId;
+    }
+}
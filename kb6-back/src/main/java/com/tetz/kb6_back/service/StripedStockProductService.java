@@ -0,0 +1,159 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.LockTestResult;
+import com.tetz.kb6_back.entity.Product;
+import com.tetz.kb6_back.entity.ProductStockShard;
+import com.tetz.kb6_back.repository.ProductRepository;
+import com.tetz.kb6_back.repository.ProductStockShardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 상품 재고를 shardCount 개의 행(ProductStockShard)으로 나눠서 차감 (striped inventory)
+// - 기본 경로: 재고가 충분하고 잠기지 않은 조각 하나를 SKIP LOCKED 로 골라 그 행만 잠금
+// - 대기 경로: 재고가 충분한 조각이 모두 잠겨 있으면 그중 하나만 기다려서 잠금
+// - 대체 경로: 어느 조각도 혼자서는 재고가 부족할 때만 모든 조각을 순서대로 잠그고 여러 조각에서 나눠 차감
+// 조각 재고가 기준이 되며 products.stock 에는 syncProductStock 으로 합계를 반영
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StripedStockProductService implements AbstractProductService {
+
+    private final ProductRepository productRepository;
+    private final ProductStockShardRepository shardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LockTestRunner lockTestRunner;
+    private final StockMetrics stockMetrics;
+
+    @Value("${stock-striping.shard-count:8}")
+    private int shardCount;
+
+    @Override
+    public void decreaseStock(Long productId, int quantity) {
+        stockMetrics.record("striped", () -> {
+            if (!decreaseFromShards(productId, quantity)) {
+                // 조각이 아직 없으면 products.stock 을 나눠서 만든 뒤 다시 시도
+                initShards(productId, false);
+                if (!decreaseFromShards(productId, quantity)) {
+                    throw new RuntimeException("Stock shards not initialized for product " + productId);
+                }
+            }
+        });
+    }
+
+    // 조각이 하나도 없으면 false
+    // 단일 조각 경로에서 잡은 잠금(대기한 조각, SKIP LOCKED 로 훑은 행)을 든 채 모든 조각을 잠그면
+    // 앞 조각부터 잠그며 그 조각을 기다리는 대체 경로 트랜잭션과 교착 상태가 생기므로,
+    // 단일 조각 트랜잭션을 먼저 끝내고 잠금 없이 새 트랜잭션에서 대체 경로를 실행
+    private boolean decreaseFromShards(Long productId, int quantity) {
+        Boolean applied = transactionTemplate.execute(status -> decreaseFromSingleShard(productId, quantity));
+        if (Boolean.TRUE.equals(applied)) {
+            return true;
+        }
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> decreaseAcrossShards(productId, quantity)));
+    }
+
+    // 재고가 충분한 조각 하나에서 차감, 그런 조각이 없으면 false
+    private boolean decreaseFromSingleShard(Long productId, int quantity) {
+        int offset = ThreadLocalRandom.current().nextInt(shardCount);
+        Optional<ProductStockShard> shard = shardRepository.lockAvailableShardFrom(productId, quantity, offset)
+                .or(() -> shardRepository.lockAvailableShardBefore(productId, quantity, offset));
+
+        if (shard.isEmpty()) {
+            // SKIP LOCKED 결과가 비어도 다른 트랜잭션이 잡고 있을 뿐일 수 있으므로, 재고가 충분한 조각 하나만 기다림
+            List<Integer> candidates = shardRepository.findShardNosWithStock(productId, quantity);
+            if (!candidates.isEmpty()) {
+                int shardNo = candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+                // 기다리는 동안 다른 트랜잭션이 조각을 비웠으면 대체 경로로 넘어감
+                shard = shardRepository.findShardForUpdate(productId, shardNo)
+                        .filter(candidate -> candidate.getStock() >= quantity);
+            }
+        }
+
+        if (shard.isEmpty()) {
+            return false;
+        }
+        shard.get().setStock(shard.get().getStock() - quantity);
+        return true;
+    }
+
+    // 대체 경로: 모든 조각을 잠그고 여러 조각에서 나눠 차감, 조각이 하나도 없으면 false
+    private boolean decreaseAcrossShards(Long productId, int quantity) {
+        List<ProductStockShard> shards = shardRepository.findByProductIdForUpdate(productId);
+        if (shards.isEmpty()) {
+            return false;
+        }
+
+        int total = shards.stream().mapToInt(ProductStockShard::getStock).sum();
+        if (total < quantity) {
+            throw new RuntimeException("Not enough stock");
+        }
+
+        int remaining = quantity;
+        for (ProductStockShard s : shards) {
+            int taken = Math.min(s.getStock(), remaining);
+            s.setStock(s.getStock() - taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    // products.stock 을 shardCount 개로 균등 분할 (나머지는 앞 조각부터 1씩)
+    // overwrite=false 이면 이미 조각이 있을 때 그대로 둠, 동시에 만들다 충돌하면 먼저 만든 쪽을 사용
+    public void initShards(Long productId, boolean overwrite) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Product product = productRepository.findByIdWithPessimisticWriteLock(productId)
+                        .orElseThrow(() -> new RuntimeException("Product not found"));
+
+                if (overwrite) {
+                    shardRepository.deleteByProductId(productId);
+                } else if (!shardRepository.findByProductIdOrderByShardNo(productId).isEmpty()) {
+                    return;
+                }
+
+                List<ProductStockShard> shards = new ArrayList<>(shardCount);
+                for (int i = 0; i < shardCount; i++) {
+                    int stock = product.getStock() / shardCount + (i < product.getStock() % shardCount ? 1 : 0);
+                    shards.add(ProductStockShard.builder()
+                            .productId(productId)
+                            .shardNo(i)
+                            .stock(stock)
+                            .build());
+                }
+                shardRepository.saveAll(shards);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Stock shards for product {} were created concurrently", productId);
+        }
+    }
+
+    // 조각 재고 합계를 products.stock 에 반영
+    public void syncProductStock(Long productId) {
+        transactionTemplate.executeWithoutResult(status ->
+                productRepository.updateStock(productId, (int) shardRepository.sumStock(productId)));
+    }
+
+    @Override
+    public LockTestResult runPerformanceTest(Long productId, int quantity, int threadCount) {
+        // 다른 서비스가 바꿨을 수 있는 products.stock 기준으로 조각을 다시 만들고, 끝나면 합계를 반영
+        initShards(productId, true);
+
+        LockTestResult result = lockTestRunner.run("Striped stock", threadCount,
+                threadNum -> decreaseStock(productId, quantity));
+
+        syncProductStock(productId);
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.UserDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Cache-aside 사용자 저장소: 조회는 Redis 우선, 미스 시 MySQL 에서 읽어 Redis 에 채움
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserCacheService {
+    private final RedisService redisService;
+    private final UserSQLService userSQLService;
+
+    // 키별로 진행 중인 MySQL 로딩 (single-flight)
+    private final ConcurrentHashMap<String, CompletableFuture<UserDto>> inFlightLoads = new ConcurrentHashMap<>();
+
+    @Value("${user-cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    public UserDto getUser(String userId) {
+        UserDto cached = redisService.getUser(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        // 같은 키의 미스가 동시에 몰리면 첫 요청만 MySQL 을 조회하고 나머지는 그 결과를 기다림
+        CompletableFuture<UserDto> load = new CompletableFuture<>();
+        CompletableFuture<UserDto> existing = inFlightLoads.putIfAbsent(userId, load);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            UserDto user = loadAndCache(userId);
+            load.complete(user);
+            return user;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(userId, load);
+        }
+    }
+
+    public void saveUser(UserDto userDto) {
+        userSQLService.saveUser(userDto);
+        redisService.deleteUser(userDto.getId());
+    }
+
+    // DB 를 먼저 갱신한 뒤 캐시를 무효화 (다음 조회 시 최신 값으로 다시 채워짐)
+    public void updateUser(UserDto userDto) {
+        userSQLService.updateUser(userDto);
+        redisService.deleteUser(userDto.getId());
+    }
+
+    public void deleteUser(String userId) {
+        userSQLService.deleteUser(userId);
+        redisService.deleteUser(userId);
+    }
+
+    private UserDto loadAndCache(String userId) {
+        // 대기 중 다른 요청이 이미 채웠을 수 있으므로 한 번 더 확인
+        UserDto cached = redisService.getUser(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        UserDto user = userSQLService.getUser(userId);
+        if (user != null) {
+            redisService.saveUserWithExpiration(user, ttlSeconds, TimeUnit.SECONDS);
+        }
+        return user;
+    }
+
+    private UserDto await(CompletableFuture<UserDto> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
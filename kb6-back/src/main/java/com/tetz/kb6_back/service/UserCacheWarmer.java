@@ -0,0 +1,175 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.dto.UserPageDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 배포 직후 비어 있는 Redis 를 users 테이블 내용으로 미리 채움
+// - 읽기: 키셋 페이지(id 순)로 chunk-size 씩 순차 조회 (커서가 이전 페이지에 의존하므로 한 스레드)
+// - 쓰기: 각 청크를 worker-threads 개의 스레드에서 SET NX 파이프라인으로 병렬 적재, 동시 청크 수는 제한
+// ApplicationRunner 가 끝나야 readiness 가 ACCEPTING_TRAFFIC 이 되므로 최대 max-wait-ms 동안만 기다리고,
+// 그 이후에는 트래픽을 받으면서 백그라운드에서 계속 채움
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserCacheWarmer implements ApplicationRunner {
+    private final UserSQLService userSQLService;
+    private final RedisService redisService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cache-warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cache-warmup.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${cache-warmup.worker-threads:4}")
+    private int workerThreads;
+
+    // 0 이면 전체
+    @Value("${cache-warmup.max-users:0}")
+    private long maxUsers;
+
+    // 0 이면 만료 없이 저장
+    @Value("${cache-warmup.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${cache-warmup.max-wait-ms:30000}")
+    private long maxWaitMillis;
+
+    @Value("${cache-warmup.progress-interval:50}")
+    private int progressInterval;
+
+    private final AtomicLong loadedCount = new AtomicLong();
+    private final AtomicInteger failedChunks = new AtomicInteger();
+    private volatile String state = "idle";
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        meterRegistry.gauge("user.cache_warmup.loaded", loadedCount);
+        if (!enabled) {
+            return;
+        }
+
+        CompletableFuture<Void> warmup = CompletableFuture.runAsync(this::warmUp, runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup");
+            thread.setDaemon(true);
+            thread.start();
+        });
+
+        try {
+            warmup.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.info("Cache warm-up still running after {}ms, continuing in background ({} users loaded)",
+                    maxWaitMillis, loadedCount.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Cache warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private void warmUp() {
+        state = "running";
+        startedAt = System.currentTimeMillis();
+        log.info("Cache warm-up started (chunk size: {}, workers: {})", chunkSize, workerThreads);
+
+        ExecutorService workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 읽기가 쓰기보다 빠를 때 청크가 메모리에 무한히 쌓이지 않도록 동시 청크 수 제한
+        Semaphore inFlight = new Semaphore(workerThreads * 2);
+
+        try {
+            String cursor = null;
+            long read = 0;
+            int chunks = 0;
+            UserPageDto page;
+            do {
+                page = userSQLService.getUsersPage(cursor, chunkSize);
+                List<UserDto> users = page.getUsers();
+                if (maxUsers > 0 && read + users.size() > maxUsers) {
+                    users = users.subList(0, (int) (maxUsers - read));
+                }
+                read += users.size();
+                cursor = page.getNextCursor();
+
+                if (!users.isEmpty()) {
+                    inFlight.acquire();
+                    List<UserDto> chunk = users;
+                    workers.execute(() -> {
+                        try {
+                            redisService.saveUsersIfAbsent(chunk, ttlSeconds, TimeUnit.SECONDS);
+                            loadedCount.addAndGet(chunk.size());
+                        } catch (Exception e) {
+                            failedChunks.incrementAndGet();
+                            log.warn("Failed to warm chunk starting at {}: {}", chunk.get(0).getId(), e.getMessage());
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+
+                if (++chunks % progressInterval == 0) {
+                    logProgress(read);
+                }
+            } while (page.isHasNext() && (maxUsers <= 0 || read < maxUsers));
+
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+            state = "completed";
+            finishedAt = System.currentTimeMillis();
+            log.info("Cache warm-up completed: {} users loaded, {} failed chunks, {}ms",
+                    loadedCount.get(), failedChunks.get(), finishedAt - startedAt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state = "interrupted";
+        } catch (Exception e) {
+            state = "failed";
+            log.error("Cache warm-up aborted after {} users: {}", loadedCount.get(), e.getMessage());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void logProgress(long read) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - startedAt);
+        log.info("Cache warm-up progress: {} read, {} loaded, {} users/s",
+                read, loadedCount.get(), loadedCount.get() * 1000 / elapsed);
+    }
+
+    public Map<String, Object> getStatus() {
+        long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", enabled);
+        status.put("state", state);
+        status.put("loaded", loadedCount.get());
+        status.put("failedChunks", failedChunks.get());
+        status.put("elapsedMillis", startedAt > 0 ? end - startedAt : 0);
+        return status;
+    }
+}
@@ -0,0 +1,22 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.entity.User;
+import org.springframework.stereotype.Component;
+
+// Entity와 DTO 간 변환 (상태가 없으므로 JMH 벤치마크에서 스프링 컨텍스트 없이 직접 생성해서 측정)
+@Component
+public class UserMapper {
+
+    public User toEntity(UserDto userDto) {
+        User user = new User();
+        user.setId(userDto.getId());
+        user.setName(userDto.getName());
+        user.setAge(userDto.getAge());
+        return user;
+    }
+
+    public UserDto toDto(User user) {
+        return new UserDto(user.getId(), user.getName(), user.getAge());
+    }
+}
@@ -0,0 +1,131 @@
+package com.tetz.kb6_back.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tetz.kb6_back.dto.UserDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// Redis 앞단의 JVM 내부 L1 캐시 (Caffeine, W-TinyLFU)
+// 어느 노드에서든 사용자가 변경되면 Redis 채널로 id 를 발행해 모든 노드의 L1 에서 제거
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserNearCache implements MessageListener {
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${near-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${near-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${near-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${near-cache.channel:user:invalidation}")
+    private String channel;
+
+    private Cache<String, UserDto> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss}, cache.evictions 등을 /actuator/prometheus 로 노출
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user-near-cache");
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    // L1 미스 시에만 loader(Redis 조회)를 호출, loader 가 null 을 반환하면 캐시하지 않음
+    public UserDto get(String userId, Function<String, UserDto> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+        return cache.get(userId, loader);
+    }
+
+    // 로컬 L1 제거 후 다른 노드에도 무효화 메시지 발행
+    // near-cache 를 끄면 지울 L1 이 없으므로 발행하지 않음 (쓰기마다 PUBLISH 왕복이 추가되지 않도록)
+    public void invalidate(String userId) {
+        if (!enabled) {
+            return;
+        }
+        cache.invalidate(userId);
+        redisTemplate.convertAndSend(channel, userId);
+    }
+
+    // 발행은 호출자가 직접 하는 경우 (리액티브 경로에서 블로킹 발행을 피하기 위함)
+    public void invalidateLocal(String userId) {
+        cache.invalidate(userId);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void invalidateAll(Collection<String> userIds) {
+        if (!enabled || userIds.isEmpty()) {
+            return;
+        }
+        cache.invalidateAll(userIds);
+        redisTemplate.convertAndSend(channel, new ArrayList<>(userIds));
+    }
+
+    // 다른 노드(자기 자신 포함)가 발행한 무효화 메시지 수신
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object payload = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (payload instanceof String userId) {
+            cache.invalidate(userId);
+        } else if (payload instanceof Collection<?> userIds) {
+            for (Object userId : userIds) {
+                cache.invalidate(String.valueOf(userId));
+            }
+        } else {
+            log.warn("Unknown near-cache invalidation payload: {}", payload);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+}
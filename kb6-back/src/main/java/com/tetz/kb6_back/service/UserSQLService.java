@@ -1,58 +1,123 @@
 package com.tetz.kb6_back.service;
 
 import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.dto.UserPageDto;
 import com.tetz.kb6_back.entity.User;
 import com.tetz.kb6_back.repository.UserSQLRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserSQLService {
     private final UserSQLRepository userSQLRepository;
+    private final UserMapper userMapper;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Hibernate JDBC 배치 크기와 맞춰서 flush/clear 주기를 결정
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    @Timed(value = "mysql.user.operations", extraTags = {"operation", "save"})
     public void saveUser(UserDto userDto) {
-        User user = convertToEntity(userDto);
+        User user = userMapper.toEntity(userDto);
         userSQLRepository.save(user);
     }
 
+    // 신규 사용자 대량 INSERT
+    // - markNew() 로 isNew() 가 true 가 되어 repository.save 가 merge(SELECT) 대신 persist 로 바로 INSERT
+    // - batchSize 마다 flush/clear 하여 JDBC 배치 전송 + 영속성 컨텍스트 메모리 유지
+    // 이미 존재하는 id 가 포함되면 중복 키 예외가 발생하므로 신규 데이터에만 사용
+    @Timed(value = "mysql.user.operations", extraTags = {"operation", "bulk_save"})
+    @Transactional
+    public void saveUsers(List<UserDto> userDtos) {
+        for (int i = 0; i < userDtos.size(); i++) {
+            User user = userMapper.toEntity(userDtos.get(i));
+            user.markNew();
+            userSQLRepository.save(user);
+
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+    }
+
+    @Timed(value = "mysql.user.operations", extraTags = {"operation", "get"})
     public UserDto getUser(String userId) {
         Optional<User> userOptional = userSQLRepository.findById(userId);
-        return userOptional.map(this::convertToDto).orElse(null);
+        return userOptional.map(userMapper::toDto).orElse(null);
     }
 
+    @Timed(value = "mysql.user.operations", extraTags = {"operation", "find_all"})
     public List<UserDto> getAllUsers() {
         List<User> users = userSQLRepository.findAll();
         return users.stream()
-                .map(this::convertToDto)
+                .map(userMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    // 키셋 페이지 조회, after 가 없으면 첫 페이지
+    // size + 1 개를 읽어서 다음 페이지 존재 여부를 추가 COUNT 쿼리 없이 판단
+    @Timed(value = "mysql.user.operations", extraTags = {"operation", "page"})
+    @Transactional(readOnly = true)
+    public UserPageDto getUsersPage(String after, int size) {
+        List<User> users = userSQLRepository.findByIdGreaterThanOrderByIdAsc(
+                after != null ? after : "", Limit.of(size + 1));
+
+        boolean hasNext = users.size() > size;
+        List<UserDto> page = users.stream()
+                .limit(size)
+                .map(userMapper::toDto)
+                .collect(Collectors.toList());
+
+        return UserPageDto.builder()
+                .users(page)
+                .nextCursor(hasNext ? page.get(page.size() - 1).getId() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    // 전체 사용자를 한 행씩 읽어서 consumer 에 전달 (DTO 목록을 만들지 않음)
+    // 읽은 엔티티는 바로 detach 하여 영속성 컨텍스트가 테이블 크기만큼 커지지 않도록 함
+    @Timed(value = "mysql.user.operations", extraTags = {"operation", "stream"})
+    @Transactional(readOnly = true)
+    public long streamAllUsers(Consumer<UserDto> consumer) {
+        long count = 0;
+        try (Stream<User> users = userSQLRepository.streamAllOrderById()) {
+            for (User user : (Iterable<User>) users::iterator) {
+                consumer.accept(userMapper.toDto(user));
+                entityManager.detach(user);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Timed(value = "mysql.user.operations", extraTags = {"operation", "delete"})
     public void deleteUser(String userId) {
         userSQLRepository.deleteById(userId);
     }
 
+    @Timed(value = "mysql.user.operations", extraTags = {"operation", "update"})
     public void updateUser(UserDto userDto) {
         if (userSQLRepository.existsById(userDto.getId())) {
-            User user = convertToEntity(userDto);
+            User user = userMapper.toEntity(userDto);
             userSQLRepository.save(user);
         }
     }
-
-    // Entity와 DTO 간 변환 메서드
-    private User convertToEntity(UserDto userDto) {
-        User user = new User();
-        user.setId(userDto.getId());
-        user.setName(userDto.getName());
-        user.setAge(userDto.getAge());
-        return user;
-    }
-
-    private UserDto convertToDto(User user) {
-        return new UserDto(user.getId(), user.getName(), user.getAge());
-    }
 }
@@ -0,0 +1,387 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.entity.UserChangeOffset;
+import com.tetz.kb6_back.repository.UserChangeOffsetRepository;
+import com.tetz.kb6_back.repository.UserSQLRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Redis 에 쓰고 바로 응답한 뒤, 변경 내역을 Redis Stream 에 남겨 MySQL 에는 비동기로 반영 (write-behind)
+// - 생산자: saveUser/deleteUser 가 Redis 반영과 XADD 를 하나의 MULTI/EXEC 로 실행 (둘 중 하나만 남지 않도록)
+// - 소비자: 컨슈머 그룹 워커가 XREADGROUP 으로 배치를 읽어 한 트랜잭션에서 upsert/delete 후 XACK + XDEL
+// - 재시도: 처리되지 않고 claim-idle-ms 이상 지난 항목을 XCLAIM 으로 다시 가져와 처리,
+//           max-deliveries 번 넘게 실패하면 dead-letter 스트림으로 이동
+// 반영은 멱등(upsert, 없는 행 삭제)이므로 같은 항목이 두 번 처리되어도 안전하고,
+// 사용자별 마지막 반영 스트림 id(user_change_offsets)보다 오래된 변경은 반영하지 않고 ACK 만 함
+// (실패 후 재처리된 이전 변경이 그 사이 반영된 최신 변경을 덮어쓰지 않도록)
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserWriteBehindService {
+    private static final String OP_SAVE = "save";
+    private static final String OP_DELETE = "delete";
+
+    private final RedisService redisService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserSQLRepository userSQLRepository;
+    private final UserChangeOffsetRepository changeOffsetRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${write-behind.stream-key:user:changes}")
+    private String streamKey;
+
+    @Value("${write-behind.dead-letter-key:user:changes:dead-letter}")
+    private String deadLetterKey;
+
+    @Value("${write-behind.group:user-sql-writer}")
+    private String group;
+
+    @Value("${write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${write-behind.block-ms:1000}")
+    private long blockMillis;
+
+    @Value("${write-behind.claim-idle-ms:30000}")
+    private long claimIdleMillis;
+
+    @Value("${write-behind.max-deliveries:5}")
+    private long maxDeliveries;
+
+    private final String consumerName = "writer-" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong backlogSize = new AtomicLong();
+
+    private Counter appliedCounter;
+    private Counter failedCounter;
+    private Counter deadLetterCounter;
+    private Counter staleCounter;
+    private Timer delayTimer;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @PostConstruct
+    public void init() {
+        // 읽었지만 아직 ACK 하지 않은 항목 수, 스트림에 남은 항목 수(미처리 + 미확인), 쓰기부터 DB 반영까지의 지연
+        meterRegistry.gauge("user.write_behind.pending", pendingCount);
+        meterRegistry.gauge("user.write_behind.backlog", backlogSize);
+        appliedCounter = meterRegistry.counter("user.write_behind.applied");
+        failedCounter = meterRegistry.counter("user.write_behind.failed");
+        deadLetterCounter = meterRegistry.counter("user.write_behind.dead_letter");
+        staleCounter = meterRegistry.counter("user.write_behind.stale_skipped");
+        delayTimer = meterRegistry.timer("user.write_behind.delay");
+
+        if (!enabled) {
+            return;
+        }
+
+        createGroup();
+        running = true;
+        worker = new Thread(this::runWorker, "user-write-behind");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(blockMillis + 1000);
+        }
+    }
+
+    // Redis 에 반영되면 응답, MySQL 반영은 워커가 처리
+    public void saveUser(UserDto user) {
+        Map<String, String> change = new HashMap<>();
+        change.put("op", OP_SAVE);
+        change.put("id", user.getId());
+        if (user.getName() != null) {
+            change.put("name", user.getName());
+        }
+        change.put("age", String.valueOf(user.getAge()));
+        redisService.saveUser(user, append(change));
+    }
+
+    public void deleteUser(String userId) {
+        redisService.deleteUser(userId, append(Map.of("op", OP_DELETE, "id", userId)));
+    }
+
+    // 사용자 쓰기와 같은 MULTI 안에서 실행될 XADD (값 직렬화 없이 문자열 그대로 저장)
+    private RedisCallback<RecordId> append(Map<String, String> change) {
+        Map<byte[], byte[]> body = new LinkedHashMap<>();
+        change.forEach((field, value) ->
+                body.put(field.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8)));
+        ByteRecord record = StreamRecords.rawBytes(body).withStreamKey(streamKey.getBytes(StandardCharsets.UTF_8));
+        return connection -> connection.streamCommands().xAdd(record);
+    }
+
+    private void runWorker() {
+        Consumer consumer = Consumer.from(group, consumerName);
+        StreamReadOptions options = StreamReadOptions.empty()
+                .count(batchSize)
+                .block(Duration.ofMillis(blockMillis));
+        long lastRetry = System.currentTimeMillis();
+
+        while (running) {
+            try {
+                List<MapRecord<String, String, String>> records = readNew(consumer, options);
+                if (records != null && !records.isEmpty()) {
+                    process(records);
+                }
+
+                if (System.currentTimeMillis() - lastRetry >= claimIdleMillis / 2) {
+                    retryPending();
+                    updateLag();
+                    lastRetry = System.currentTimeMillis();
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.error("Write-behind worker error: {}", e.getMessage());
+                sleep(blockMillis);
+            }
+        }
+    }
+
+    // 이 소비자에게 아직 전달되지 않은 변경을 읽음
+    // read 의 StreamOffset 가변 인자는 제네릭 배열을 만들므로 unchecked 경고를 이 메서드로 한정
+    @SuppressWarnings("unchecked")
+    private List<MapRecord<String, String, String>> readNew(Consumer consumer, StreamReadOptions options) {
+        return streamOps().read(consumer, options, StreamOffset.create(streamKey, ReadOffset.lastConsumed()));
+    }
+
+    // 배치 전체를 한 트랜잭션으로 반영하고, 실패하면 사용자별로 나눠서 다시 시도해 문제 사용자만 남김
+    // 사용자별로는 마지막 변경만 반영하고 성공하면 그 사용자의 이전 변경도 함께 ACK
+    // (이전 변경만 따로 남았다가 나중에 재처리되어 최신 값을 덮어쓰는 일이 없도록)
+    // 테스트에서 워커 없이 배치를 직접 넘길 수 있도록 패키지 범위로 둠
+    void process(List<MapRecord<String, String, String>> records) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(records));
+            acknowledge(records);
+        } catch (Exception e) {
+            log.warn("Write-behind batch of {} failed, retrying per user: {}", records.size(), e.getMessage());
+
+            Map<String, List<MapRecord<String, String, String>>> byUser = new LinkedHashMap<>();
+            for (MapRecord<String, String, String> record : records) {
+                byUser.computeIfAbsent(record.getValue().get("id"), id -> new ArrayList<>()).add(record);
+            }
+
+            List<MapRecord<String, String, String>> succeeded = new ArrayList<>();
+            for (List<MapRecord<String, String, String>> userRecords : byUser.values()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(userRecords));
+                    succeeded.addAll(userRecords);
+                } catch (Exception userError) {
+                    // ACK 하지 않으면 pending 으로 남아 retryPending 에서 다시 처리됨
+                    failedCounter.increment(userRecords.size());
+                    log.error("Failed to apply user change {}: {}",
+                            userRecords.get(userRecords.size() - 1).getId(), userError.getMessage());
+                }
+            }
+            acknowledge(succeeded);
+        }
+    }
+
+    // 같은 사용자에 대한 변경은 마지막 것만, 그리고 이미 반영된 것보다 최신일 때만 반영
+    private void apply(List<MapRecord<String, String, String>> records) {
+        // 사용자 id 순서로 오프셋 행을 잠가서 겹치는 배치를 처리하는 워커끼리 교착 상태가 생기지 않도록 함
+        Map<String, MapRecord<String, String, String>> latest = new TreeMap<>();
+        for (MapRecord<String, String, String> record : records) {
+            latest.merge(record.getValue().get("id"), record,
+                    (current, candidate) -> changeId(candidate.getId()).compareTo(changeId(current.getId())) > 0
+                            ? candidate : current);
+        }
+
+        latest.forEach((userId, record) -> changeOffsetRepository.advance(userId, changeId(record.getId())));
+        Map<String, String> appliedOffsets = new HashMap<>();
+        for (UserChangeOffset offset : changeOffsetRepository.findAllForUpdate(latest.keySet())) {
+            appliedOffsets.put(offset.getUserId(), offset.getLastChangeId());
+        }
+
+        List<String> deletedIds = new ArrayList<>();
+        for (Map.Entry<String, MapRecord<String, String, String>> entry : latest.entrySet()) {
+            if (!changeId(entry.getValue().getId()).equals(appliedOffsets.get(entry.getKey()))) {
+                // 더 최신 변경이 이미 반영됨
+                staleCounter.increment();
+                continue;
+            }
+
+            Map<String, String> change = entry.getValue().getValue();
+            switch (change.get("op")) {
+                case OP_SAVE -> userSQLRepository.upsert(entry.getKey(), change.get("name"),
+                        Integer.parseInt(change.get("age")));
+                case OP_DELETE -> deletedIds.add(entry.getKey());
+                default -> throw new IllegalArgumentException("Unknown user change op: " + change.get("op"));
+            }
+        }
+
+        if (!deletedIds.isEmpty()) {
+            userSQLRepository.deleteAllByIdInBatch(deletedIds);
+        }
+    }
+
+    // 스트림 id(밀리초-순번)를 자리수를 맞춘 문자열로 바꿔 문자열 비교가 순서 비교가 되도록 함
+    private static String changeId(RecordId id) {
+        return String.format("%019d-%019d", id.getTimestamp(), id.getSequence());
+    }
+
+    // 반영된 항목은 ACK 후 스트림에서도 삭제하여 스트림 길이 = 아직 반영되지 않은 변경 수가 되도록 유지
+    private void acknowledge(List<MapRecord<String, String, String>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        RecordId[] ids = records.stream().map(MapRecord::getId).toArray(RecordId[]::new);
+        streamOps().acknowledge(streamKey, group, ids);
+        streamOps().delete(streamKey, ids);
+
+        long now = System.currentTimeMillis();
+        for (RecordId id : ids) {
+            delayTimer.record(Math.max(0, now - id.getTimestamp()), TimeUnit.MILLISECONDS);
+        }
+        appliedCounter.increment(ids.length);
+    }
+
+    private void retryPending() {
+        PendingMessages pending = streamOps().pending(streamKey, group, Range.unbounded(), batchSize);
+
+        List<RecordId> retryIds = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (message.getElapsedTimeSinceLastDelivery().toMillis() < claimIdleMillis) {
+                continue;
+            }
+            if (message.getTotalDeliveryCount() >= maxDeliveries) {
+                deadLetter(message.getId());
+            } else {
+                retryIds.add(message.getId());
+            }
+        }
+
+        if (retryIds.isEmpty()) {
+            return;
+        }
+
+        // 중단된 다른 워커의 항목도 여기서 넘겨받아 처리
+        List<MapRecord<String, String, String>> claimed = streamOps().claim(streamKey, group, consumerName,
+                Duration.ofMillis(claimIdleMillis), retryIds.toArray(RecordId[]::new));
+        if (!claimed.isEmpty()) {
+            log.info("Retrying {} pending user changes", claimed.size());
+            process(claimed);
+        }
+    }
+
+    private void deadLetter(RecordId id) {
+        List<MapRecord<String, String, String>> records =
+                streamOps().range(streamKey, Range.just(id.getValue()));
+
+        for (MapRecord<String, String, String> record : records) {
+            Map<String, String> change = new HashMap<>(record.getValue());
+            change.put("sourceId", id.getValue());
+            streamOps().add(StreamRecords.newRecord().in(deadLetterKey).ofMap(change));
+        }
+
+        streamOps().acknowledge(streamKey, group, id);
+        streamOps().delete(streamKey, id);
+        deadLetterCounter.increment();
+        log.error("Moved user change {} to dead-letter stream {}", id, deadLetterKey);
+    }
+
+    private void updateLag() {
+        PendingMessagesSummary summary = streamOps().pending(streamKey, group);
+        pendingCount.set(summary != null ? summary.getTotalPendingMessages() : 0);
+        Long size = streamOps().size(streamKey);
+        backlogSize.set(size != null ? size : 0);
+    }
+
+    // 스트림이 없어도 그룹을 만들 수 있도록 MKSTREAM, 이미 있으면(BUSYGROUP) 그대로 사용
+    private void createGroup() {
+        try {
+            stringRedisTemplate.execute((RedisCallback<String>) this::xGroupCreate);
+        } catch (Exception e) {
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (message == null || !message.contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    private String xGroupCreate(RedisConnection connection) {
+        return connection.streamCommands().xGroupCreate(
+                streamKey.getBytes(StandardCharsets.UTF_8), group, ReadOffset.from("0"), true);
+    }
+
+    public Map<String, Object> getStats() {
+        updateLag();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("consumer", consumerName);
+        stats.put("pending", pendingCount.get());
+        stats.put("backlog", backlogSize.get());
+        stats.put("applied", (long) appliedCounter.count());
+        stats.put("failed", (long) failedCounter.count());
+        stats.put("deadLettered", (long) deadLetterCounter.count());
+        stats.put("staleSkipped", (long) staleCounter.count());
+        stats.put("deadLetterSize", streamOps().size(deadLetterKey));
+        stats.put("meanDelayMillis", delayTimer.mean(TimeUnit.MILLISECONDS));
+        stats.put("maxDelayMillis", delayTimer.max(TimeUnit.MILLISECONDS));
+        return stats;
+    }
+
+    private StreamOperations<String, String, String> streamOps() {
+        return stringRedisTemplate.opsForStream();
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+-- 예약 확정: 예약을 지우고 확정할 수량을 반환 (가용 재고는 예약 시 이미 차감됨)
+-- TTL 키가 이미 만료됐으면 확정하지 않고 수량을 가용 재고로 되돌림
+-- KEYS[1]: 가용 재고, KEYS[2]: 예약 해시, KEYS[3]: 만료 zset, KEYS[4]: 예약 TTL 키
+-- ARGV[1]: 예약 id, ARGV[2]: zset 멤버
+-- 반환값: 확정할 수량 / -1: 예약 없음(이미 확정/해제) / -2: 만료됨
+local quantity = redis.call('HGET', KEYS[2], ARGV[1])
+if not quantity then
+    return -1
+end
+
+redis.call('HDEL', KEYS[2], ARGV[1])
+redis.call('ZREM', KEYS[3], ARGV[2])
+if redis.call('DEL', KEYS[4]) == 0 then
+    -- 가용 재고 키가 없으면 다음 적재 때 DB 재고 - 예약 합계로 다시 계산되므로 만들지 않음
+    if redis.call('EXISTS', KEYS[1]) == 1 then
+        redis.call('INCRBY', KEYS[1], quantity)
+    end
+    return -2
+end
+
+return tonumber(quantity)
@@ -0,0 +1,14 @@
+-- 재고 확인 + 차감을 원자적으로 수행
+-- KEYS[1]: 재고 키, ARGV[1]: 차감 수량
+-- 반환값: 차감 후 재고 / -1: 재고 키 없음(미적재) / -2: 재고 부족
+local stock = redis.call('GET', KEYS[1])
+if not stock then
+    return -1
+end
+
+local quantity = tonumber(ARGV[1])
+if tonumber(stock) < quantity then
+    return -2
+end
+
+return redis.call('DECRBY', KEYS[1], quantity)
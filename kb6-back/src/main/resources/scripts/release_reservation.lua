@@ -0,0 +1,22 @@
+-- 예약 해제: 예약을 지우고 수량을 가용 재고로 되돌림
+-- KEYS[1]: 가용 재고, KEYS[2]: 예약 해시, KEYS[3]: 만료 zset, KEYS[4]: 예약 TTL 키
+-- ARGV[1]: 예약 id, ARGV[2]: zset 멤버, ARGV[3]: 1 이면 명시적 취소, 0 이면 TTL 키가 만료된 경우에만 해제
+-- 반환값: 되돌린 수량 / -1: 예약 없음(이미 확정/해제) / -3: 아직 만료되지 않음
+local quantity = redis.call('HGET', KEYS[2], ARGV[1])
+if not quantity then
+    redis.call('ZREM', KEYS[3], ARGV[2])
+    return -1
+end
+
+if ARGV[3] == '0' and redis.call('EXISTS', KEYS[4]) == 1 then
+    return -3
+end
+
+redis.call('HDEL', KEYS[2], ARGV[1])
+redis.call('ZREM', KEYS[3], ARGV[2])
+redis.call('DEL', KEYS[4])
+-- 가용 재고 키가 없으면 다음 적재 때 DB 재고 - 예약 합계로 다시 계산되므로 만들지 않음
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    redis.call('INCRBY', KEYS[1], quantity)
+end
+return tonumber(quantity)
@@ -0,0 +1,6 @@
+-- 자신이 잡은 락일 때만 임대 시간 연장
+-- KEYS[1]: 락 키, ARGV[1]: 락 값(소유자 식별자), ARGV[2]: 임대 시간(ms)
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
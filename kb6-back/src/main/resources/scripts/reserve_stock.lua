@@ -0,0 +1,19 @@
+-- 가용 재고에서 수량을 빼서 만료 시간이 있는 예약(hold)으로 옮김
+-- KEYS[1]: 가용 재고, KEYS[2]: 예약 해시(예약 id -> 수량), KEYS[3]: 만료 zset, KEYS[4]: 예약 TTL 키
+-- ARGV[1]: 예약 id, ARGV[2]: 수량, ARGV[3]: TTL(ms), ARGV[4]: 만료 시각(epoch ms), ARGV[5]: zset 멤버
+-- 반환값: 예약 후 가용 재고 / -1: 가용 재고 키 없음(미적재) / -2: 재고 부족
+local available = redis.call('GET', KEYS[1])
+if not available then
+    return -1
+end
+
+local quantity = tonumber(ARGV[2])
+if tonumber(available) < quantity then
+    return -2
+end
+
+local remaining = redis.call('DECRBY', KEYS[1], quantity)
+redis.call('HSET', KEYS[2], ARGV[1], quantity)
+redis.call('ZADD', KEYS[3], ARGV[4], ARGV[5])
+redis.call('SET', KEYS[4], quantity, 'PX', ARGV[3])
+return remaining
@@ -0,0 +1,16 @@
+-- 해시 버킷의 필드에 사용자를 저장하고 필드 단위 만료 시간을 설정 (HPEXPIRE, Redis 7.4+)
+-- KEYS[1]: 버킷 키
+-- ARGV[1]: 필드(사용자 id), ARGV[2]: 직렬화된 사용자, ARGV[3]: 만료 시간(ms, 0 이하면 만료 없음), ARGV[4]: 1 이면 없을 때만 저장
+-- 반환값: 1: 저장 / 0: 이미 있어서 저장하지 않음
+if ARGV[4] == '1' then
+    if redis.call('HSETNX', KEYS[1], ARGV[1], ARGV[2]) == 0 then
+        return 0
+    end
+else
+    redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+end
+
+if tonumber(ARGV[3]) > 0 then
+    redis.call('HPEXPIRE', KEYS[1], ARGV[3], 'FIELDS', 1, ARGV[1])
+end
+return 1
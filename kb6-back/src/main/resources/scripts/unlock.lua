@@ -0,0 +1,8 @@
+-- 자신이 잡은 락일 때만 해제하고 대기 중인 노드에게 해제 알림
+-- KEYS[1]: 락 키, ARGV[1]: 락 값(소유자 식별자), ARGV[2]: 해제 알림 채널
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    redis.call('DEL', KEYS[1])
+    redis.call('PUBLISH', ARGV[2], KEYS[1])
+    return 1
+end
+return 0
@@ -0,0 +1,64 @@
+package com.tetz.kb6_back;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+// 로컬 MySQL/Redis 없이 임베디드 Redis + H2(MySQL 모드) 위에서 띄우는 통합 테스트 공통 설정 (BenchmarkEnvironment 와 같은 구성)
+// Redis 는 JVM 당 하나만 띄우고, 이 클래스를 상속한 테스트들은 같은 컨텍스트를 캐시로 공유
+// 백그라운드 write-behind 워커와 캐시 워밍은 끄고, 테스트가 필요한 메서드를 직접 호출
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"write-behind.enabled=false",
+		"cache-warmup.enabled=false",
+		"logging.file.name=",
+})
+public abstract class EmbeddedInfraTest {
+
+	private static final int REDIS_PORT = freePort();
+	private static RedisServer redisServer;
+
+	@DynamicPropertySource
+	static void redisProperties(DynamicPropertyRegistry registry) {
+		startRedis();
+		registry.add("spring.redis.host", () -> "localhost");
+		registry.add("spring.redis.port", () -> REDIS_PORT);
+	}
+
+	private static synchronized void startRedis() {
+		if (redisServer != null) {
+			return;
+		}
+		try {
+			redisServer = new RedisServer(REDIS_PORT);
+			redisServer.start();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				redisServer.stop();
+			} catch (IOException ignored) {
+				// JVM 종료 중이므로 무시
+			}
+		}));
+	}
+
+	private static int freePort() {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
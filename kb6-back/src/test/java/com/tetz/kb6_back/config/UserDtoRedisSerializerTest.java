@@ -0,0 +1,61 @@
+package com.tetz.kb6_back.config;
+
+import com.tetz.kb6_back.dto.UserDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserDtoRedisSerializerTest {
+
+	private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+	private final UserDtoRedisSerializer serializer = new UserDtoRedisSerializer(jsonSerializer);
+
+	@Test
+	void roundTripsUuidId() {
+		UserDto user = new UserDto(UUID.randomUUID().toString(), "User 1", 30);
+
+		byte[] bytes = serializer.serialize(user);
+
+		assertThat(bytes[0]).isEqualTo(UserDtoRedisSerializer.MAGIC);
+		assertThat(serializer.deserialize(bytes)).isEqualTo(user);
+	}
+
+	@Test
+	void roundTripsNonUuidId() {
+		// 대문자 UUID 는 16바이트로 압축하면 소문자로 바뀌므로 원문 그대로 저장되어야 함
+		UserDto user = new UserDto(UUID.randomUUID().toString().toUpperCase(), "사용자", 300);
+
+		assertThat(serializer.deserialize(serializer.serialize(user))).isEqualTo(user);
+	}
+
+	@Test
+	void roundTripsNullFields() {
+		UserDto user = new UserDto(null, null, 0);
+
+		assertThat(serializer.deserialize(serializer.serialize(user))).isEqualTo(user);
+	}
+
+	@Test
+	void readsLegacyJsonPayload() {
+		UserDto user = new UserDto(UUID.randomUUID().toString(), "User 1", 30);
+
+		byte[] legacy = jsonSerializer.serialize(user);
+
+		assertThat(serializer.deserialize(legacy)).isEqualTo(user);
+	}
+
+	@Test
+	void rejectsUnknownVersion() {
+		byte[] bytes = serializer.serialize(new UserDto(UUID.randomUUID().toString(), "User 1", 30));
+		bytes[1] = (byte) (UserDtoRedisSerializer.VERSION + 1);
+
+		assertThatThrownBy(() -> serializer.deserialize(bytes))
+				.isInstanceOf(SerializationException.class)
+				.hasMessageContaining("version");
+	}
+}
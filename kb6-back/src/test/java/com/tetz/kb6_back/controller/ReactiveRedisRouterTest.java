@@ -0,0 +1,51 @@
+package com.tetz.kb6_back.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.service.ReactiveRedisService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ReactiveRedisRouterTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final ReactiveRedisService reactiveRedisService = mock(ReactiveRedisService.class);
+	private final MockMvc mockMvc = MockMvcBuilders
+			.routerFunctions(new ReactiveRedisRouter(reactiveRedisService, objectMapper).reactiveRedisRoutes())
+			.build();
+
+	@Test
+	void bulkGetStreamsOneUserPerLine() throws Exception {
+		UserDto first = new UserDto("user-1", "User 1", 20);
+		UserDto second = new UserDto("user-2", "User 2", 30);
+		when(reactiveRedisService.getUsers(List.of("user-1", "user-2"))).thenReturn(Flux.just(first, second));
+
+		MvcResult result = mockMvc.perform(post("/api/reactive/redis/bulk/get")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(List.of("user-1", "user-2"))))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn();
+
+		String body = result.getResponse().getContentAsString();
+		assertThat(body).endsWith("\n");
+
+		List<String> lines = body.lines().toList();
+		assertThat(lines).hasSize(2);
+		assertThat(objectMapper.readValue(lines.get(0), UserDto.class)).isEqualTo(first);
+		assertThat(objectMapper.readValue(lines.get(1), UserDto.class)).isEqualTo(second);
+	}
+}
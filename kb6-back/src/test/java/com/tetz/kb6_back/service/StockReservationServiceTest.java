@@ -0,0 +1,154 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.EmbeddedInfraTest;
+import com.tetz.kb6_back.dto.StockReservation;
+import com.tetz.kb6_back.entity.Product;
+import com.tetz.kb6_back.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// reserve / confirm / release 스크립트와 만료 처리(sweeper, keyspace 알림) 검증
+class StockReservationServiceTest extends EmbeddedInfraTest {
+
+	@Autowired
+	private StockReservationService reservationService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private StringRedisTemplate stringRedisTemplate;
+
+	@Test
+	void reserveMovesAvailableStockIntoHold() {
+		Long productId = createProduct(10);
+
+		StockReservation reservation = reservationService.reserve(productId, 3);
+
+		assertStatus(productId, 7, 3);
+		assertThat(stringRedisTemplate.getExpire(holdKey(reservation))).isPositive();
+		// 확정 전에는 DB 재고가 바뀌지 않음
+		assertThat(stockOf(productId)).isEqualTo(10);
+	}
+
+	@Test
+	void reserveFailsWithoutHoldingWhenNotEnoughAvailable() {
+		Long productId = createProduct(5);
+		reservationService.reserve(productId, 3);
+
+		assertThatThrownBy(() -> reservationService.reserve(productId, 3))
+				.hasMessage("Not enough stock");
+		assertStatus(productId, 2, 3);
+	}
+
+	@Test
+	void confirmDecreasesProductStockOnce() {
+		Long productId = createProduct(10);
+		StockReservation reservation = reservationService.reserve(productId, 4);
+
+		reservationService.confirm(productId, reservation.getReservationId());
+
+		assertThat(stockOf(productId)).isEqualTo(6);
+		assertStatus(productId, 6, 0);
+		assertThatThrownBy(() -> reservationService.confirm(productId, reservation.getReservationId()))
+				.hasMessage("Reservation not found");
+		assertThat(stockOf(productId)).isEqualTo(6);
+	}
+
+	@Test
+	void releaseReturnsHeldStock() {
+		Long productId = createProduct(10);
+		StockReservation reservation = reservationService.reserve(productId, 4);
+
+		reservationService.release(productId, reservation.getReservationId());
+
+		assertStatus(productId, 10, 0);
+		assertThatThrownBy(() -> reservationService.release(productId, reservation.getReservationId()))
+				.hasMessage("Reservation not found");
+		assertStatus(productId, 10, 0);
+	}
+
+	@Test
+	void expiredHoldIsNotConfirmedAndReturnsStock() {
+		Long productId = createProduct(10);
+		StockReservation reservation = reservationService.reserve(productId, 4);
+
+		// TTL 키가 사라진 상태 = 만료됐지만 아직 해제되지 않은 예약
+		stringRedisTemplate.delete(holdKey(reservation));
+
+		assertThatThrownBy(() -> reservationService.confirm(productId, reservation.getReservationId()))
+				.hasMessage("Reservation expired");
+		assertThat(stockOf(productId)).isEqualTo(10);
+		assertStatus(productId, 10, 0);
+	}
+
+	@Test
+	void sweeperReleasesOnlyHoldsWhoseTtlKeyIsGone() {
+		Long productId = createProduct(10);
+		StockReservation reservation = reservationService.reserve(productId, 2);
+		String member = productId + ":" + reservation.getReservationId();
+
+		// 만료 zset 점수는 지났지만 TTL 키가 남아 있으면 (시계 차이) 해제하지 않음
+		stringRedisTemplate.opsForZSet().add("reservation:expiry", member, 0);
+		reservationService.sweepExpired();
+		assertStatus(productId, 8, 2);
+
+		stringRedisTemplate.delete(holdKey(reservation));
+		reservationService.sweepExpired();
+		assertStatus(productId, 10, 0);
+		assertThat(stringRedisTemplate.opsForZSet().score("reservation:expiry", member)).isNull();
+	}
+
+	@Test
+	void holdIsReleasedWhenTtlKeyExpires() throws InterruptedException {
+		Long productId = createProduct(10);
+		long ttlSeconds = (long) ReflectionTestUtils.getField(reservationService, "ttlSeconds");
+		ReflectionTestUtils.setField(reservationService, "ttlSeconds", 1L);
+		try {
+			reservationService.reserve(productId, 5);
+		} finally {
+			ReflectionTestUtils.setField(reservationService, "ttlSeconds", ttlSeconds);
+		}
+		assertStatus(productId, 5, 5);
+
+		// keyspace 만료 알림 또는 sweeper 가 해제할 때까지 대기
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (heldOf(productId) > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+		assertStatus(productId, 10, 0);
+	}
+
+	private Long createProduct(int stock) {
+		return productRepository.save(Product.builder()
+				.name("Reservation Test Product")
+				.stock(stock)
+				.version(0L)
+				.build()).getId();
+	}
+
+	private int stockOf(Long productId) {
+		return productRepository.findById(productId).orElseThrow().getStock();
+	}
+
+	private long heldOf(Long productId) {
+		return (long) reservationService.getStatus(productId).get("held");
+	}
+
+	private void assertStatus(Long productId, long available, long held) {
+		Map<String, Object> status = reservationService.getStatus(productId);
+		assertThat(status.get("available")).isEqualTo(available);
+		assertThat(status.get("held")).isEqualTo(held);
+	}
+
+	private String holdKey(StockReservation reservation) {
+		return "reservation:hold:" + reservation.getProductId() + ":" + reservation.getReservationId();
+	}
+}
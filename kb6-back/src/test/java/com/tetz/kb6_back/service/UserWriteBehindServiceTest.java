@@ -0,0 +1,110 @@
+package com.tetz.kb6_back.service;
+
+import com.tetz.kb6_back.EmbeddedInfraTest;
+import com.tetz.kb6_back.dto.UserDto;
+import com.tetz.kb6_back.entity.User;
+import com.tetz.kb6_back.repository.UserSQLRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserWriteBehindServiceTest extends EmbeddedInfraTest {
+
+	@Autowired
+	private UserWriteBehindService writeBehindService;
+
+	@Autowired
+	private UserSQLRepository userSQLRepository;
+
+	@Autowired
+	private StringRedisTemplate stringRedisTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${write-behind.stream-key}")
+	private String streamKey;
+
+	@Test
+	void staleChangeRedeliveredAfterNewerOneIsSkipped() {
+		String userId = newUserId();
+		writeBehindService.saveUser(new UserDto(userId, "old", 20));
+		writeBehindService.saveUser(new UserDto(userId, "new", 21));
+
+		List<MapRecord<String, String, String>> changes = changesOf(userId);
+		assertThat(changes).hasSize(2);
+		double staleBefore = meterRegistry.counter("user.write_behind.stale_skipped").count();
+
+		// 최신 변경이 먼저 반영된 뒤, 실패했던 이전 변경이 재처리되는 순서
+		writeBehindService.process(List.of(changes.get(1)));
+		writeBehindService.process(List.of(changes.get(0)));
+
+		User user = userSQLRepository.findById(userId).orElseThrow();
+		assertThat(user.getName()).isEqualTo("new");
+		assertThat(user.getAge()).isEqualTo(21);
+		assertThat(meterRegistry.counter("user.write_behind.stale_skipped").count()).isEqualTo(staleBefore + 1);
+		// 건너뛴 변경도 ACK 후 스트림에서 삭제됨
+		assertThat(changesOf(userId)).isEmpty();
+	}
+
+	@Test
+	void lastChangeInBatchWins() {
+		String userId = newUserId();
+		writeBehindService.saveUser(new UserDto(userId, "User", 20));
+		writeBehindService.deleteUser(userId);
+
+		writeBehindService.process(changesOf(userId));
+
+		assertThat(userSQLRepository.findById(userId)).isEmpty();
+		assertThat(changesOf(userId)).isEmpty();
+	}
+
+	@Test
+	void failingUserIsRetriedAloneAndOthersAreApplied() {
+		String goodUserId = newUserId();
+		String badUserId = newUserId();
+		writeBehindService.saveUser(new UserDto(goodUserId, "Good", 30));
+		stringRedisTemplate.opsForStream().add(StreamRecords.newRecord().in(streamKey)
+				.ofMap(Map.of("op", "save", "id", badUserId, "age", "not-a-number")));
+
+		List<MapRecord<String, String, String>> batch = new ArrayList<>(changesOf(goodUserId));
+		batch.addAll(changesOf(badUserId));
+		double failedBefore = meterRegistry.counter("user.write_behind.failed").count();
+
+		writeBehindService.process(batch);
+
+		// 배치 트랜잭션은 롤백되지만 사용자별 재시도에서 정상 사용자는 반영되고 ACK 됨
+		assertThat(userSQLRepository.findById(goodUserId)).map(User::getName).contains("Good");
+		assertThat(changesOf(goodUserId)).isEmpty();
+
+		// 실패한 사용자는 반영되지 않고 스트림에 남아 다음 재시도 대상이 됨
+		assertThat(userSQLRepository.findById(badUserId)).isEmpty();
+		List<MapRecord<String, String, String>> remaining = changesOf(badUserId);
+		assertThat(remaining).hasSize(1);
+		assertThat(meterRegistry.counter("user.write_behind.failed").count()).isEqualTo(failedBefore + 1);
+
+		stringRedisTemplate.opsForStream().delete(streamKey, remaining.get(0).getId());
+	}
+
+	private List<MapRecord<String, String, String>> changesOf(String userId) {
+		return stringRedisTemplate.<String, String>opsForStream().range(streamKey, Range.unbounded()).stream()
+				.filter(record -> userId.equals(record.getValue().get("id")))
+				.toList();
+	}
+
+	private String newUserId() {
+		return UUID.randomUUID().toString();
+	}
+}